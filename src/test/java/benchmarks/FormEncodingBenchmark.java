@@ -0,0 +1,41 @@
+package benchmarks;
+
+import clients.ApplicationClient;
+import clients.FormBody;
+import helpers.TokenHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormEncodingBenchmark {
+    private String validToken;
+    private String invalidToken;
+
+    @Setup
+    public void setUp() {
+        validToken = TokenHelper.generateValidToken();
+        invalidToken = TokenHelper.generateInvalidToken();
+    }
+
+    @Benchmark
+    public Map<String, String> applicationClientFormParams() {
+        return ApplicationClient.formParams(validToken, "ACTION");
+    }
+
+    @Benchmark
+    public byte[] formBodyValidToken() {
+        return FormBody.encode(validToken, "ACTION");
+    }
+
+    @Benchmark
+    public byte[] formBodyInvalidToken() {
+        return FormBody.encode(invalidToken, "ACTION");
+    }
+}
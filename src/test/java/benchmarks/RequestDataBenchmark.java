@@ -0,0 +1,46 @@
+package benchmarks;
+
+import builders.RequestData;
+import builders.RequestDataBuilder;
+import helpers.TokenHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestDataBenchmark {
+    private String token;
+    private RequestData requestData;
+
+    @Setup
+    public void setUp() {
+        token = TokenHelper.generateValidToken();
+        requestData = RequestDataBuilder.create().withToken(token).withActionAction().build();
+    }
+
+    @Benchmark
+    public RequestData buildWithExistingToken() {
+        return RequestDataBuilder.create()
+                .withToken(token)
+                .withLoginAction()
+                .build();
+    }
+
+    @Benchmark
+    public RequestData buildWithValidToken() {
+        return RequestDataBuilder.create()
+                .withValidToken()
+                .withLoginAction()
+                .build();
+    }
+
+    @Benchmark
+    public String toStringWithMaskedToken() {
+        return requestData.toString();
+    }
+}
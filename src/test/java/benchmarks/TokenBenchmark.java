@@ -0,0 +1,31 @@
+package benchmarks;
+
+import helpers.TokenHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    @Benchmark
+    public String generateValidToken() {
+        return TokenHelper.generateValidToken();
+    }
+
+    @Benchmark
+    public String generateInvalidToken() {
+        return TokenHelper.generateInvalidToken();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateValidTokenContended() {
+        return TokenHelper.generateValidToken();
+    }
+}
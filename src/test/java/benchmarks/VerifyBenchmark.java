@@ -0,0 +1,50 @@
+package benchmarks;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import steps.ApplicationSteps;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifyBenchmark {
+    private Response successResponse;
+    private Response validationErrorResponse;
+    private Response forbiddenResponse;
+
+    @Setup
+    public void setUp() {
+        successResponse = cannedResponse(200, "{\"result\":\"OK\"}");
+        validationErrorResponse = cannedResponse(400, "{\"result\":\"ERROR\",\"message\":\"token: invalid value\"}");
+        forbiddenResponse = cannedResponse(403, "{\"result\":\"ERROR\",\"message\":\"Token not found\"}");
+    }
+
+    @Benchmark
+    public void verifySuccessResponse() {
+        ApplicationSteps.verifySuccessResponse(successResponse);
+    }
+
+    @Benchmark
+    public void verifyValidationError() {
+        ApplicationSteps.verifyValidationError(validationErrorResponse);
+    }
+
+    @Benchmark
+    public void verifyForbiddenError() {
+        ApplicationSteps.verifyForbiddenError(forbiddenResponse);
+    }
+
+    private static Response cannedResponse(int statusCode, String body) {
+        return new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package bootstrap;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Запускает {@link SuiteBootstrap} при открытии сессии JUnit, до обнаружения тестов, и печатает
+ * разбивку времени старта при закрытии. Регистрируется через META-INF/services.
+ */
+public class BootstrapSessionListener implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        SuiteBootstrap.start();
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        SuiteBootstrap.report();
+    }
+}
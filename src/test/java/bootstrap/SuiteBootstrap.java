@@ -0,0 +1,123 @@
+package bootstrap;
+
+import config.TestConfig;
+import io.restassured.RestAssured;
+import mock.MockService;
+import simulator.ServiceSimulator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Параллельная подготовка окружения тестов: мок внешних сервисов, симулятор и прогрев REST Assured
+ * стартуют в фоне при открытии сессии JUnit, пока обнаруживаются и загружаются классы тестов.
+ * Тесты ждут готовности в {@link #awaitReady()}. Длительность этапов и время до первого запроса
+ * печатаются и пишутся в environment.properties отчета Allure.
+ */
+public final class SuiteBootstrap {
+    private static final Logger logger = Logger.getLogger(SuiteBootstrap.class.getName());
+    private static final long JVM_START_MILLIS = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Map<String, Long> timings = new ConcurrentHashMap<>();
+    private static final AtomicBoolean firstRequest = new AtomicBoolean();
+    private static final AtomicLong waitNanos = new AtomicLong();
+    private static CompletableFuture<Void> ready;
+
+    private SuiteBootstrap() {
+    }
+
+    /**
+     * Запускает подготовку в фоне; повторный вызов ничего не делает.
+     */
+    public static synchronized void start() {
+        if (ready != null) {
+            return;
+        }
+        timings.put("startup.jvm.to.bootstrap.ms", System.currentTimeMillis() - JVM_START_MILLIS);
+        ThreadFactory threads = Thread.ofPlatform().name("bootstrap-", 0).daemon().factory();
+        var executor = Executors.newFixedThreadPool(3, threads);
+        CompletableFuture<Void> mock = CompletableFuture.runAsync(() -> timed("startup.mock.ms", () -> {
+            MockService.start();
+            MockService.stubAuthEndpoint(200);
+            MockService.stubDoActionEndpoint(200);
+        }), executor);
+        CompletableFuture<Void> simulator = CompletableFuture.runAsync(() -> timed("startup.simulator.ms", () -> {
+            if (TestConfig.isSimulatorEnabled()) {
+                ServiceSimulator.start();
+            }
+        }), executor);
+        // Первая спецификация загружает Groovy и классы REST Assured; сам запрос не отправляется
+        CompletableFuture<Void> restAssured = CompletableFuture.runAsync(() -> timed("startup.restassured.ms",
+                () -> RestAssured.given().baseUri(TestConfig.getBaseUrl()).contentType("application/x-www-form-urlencoded")),
+                executor);
+        ready = CompletableFuture.allOf(mock, simulator, restAssured);
+        ready.whenComplete((result, error) -> executor.shutdown());
+    }
+
+    /**
+     * Ждет окончания подготовки, запуская ее, если сессия JUnit не сделала этого раньше.
+     */
+    public static void awaitReady() {
+        start();
+        long begin = System.nanoTime();
+        ready.join();
+        waitNanos.accumulateAndGet(System.nanoTime() - begin, Math::max);
+    }
+
+    /**
+     * Фиксирует время до первого запроса к сервису; последующие вызовы ничего не делают.
+     */
+    public static void markFirstRequest() {
+        if (!firstRequest.get() && firstRequest.compareAndSet(false, true)) {
+            timings.put("startup.time.to.first.request.ms", System.currentTimeMillis() - JVM_START_MILLIS);
+        }
+    }
+
+    /**
+     * Печатает разбивку времени старта и дописывает ее в environment.properties отчета Allure.
+     */
+    public static void report() {
+        if (timings.isEmpty()) {
+            return;
+        }
+        Map<String, Long> breakdown = new TreeMap<>(timings);
+        breakdown.put("startup.await.ready.ms", TimeUnit.NANOSECONDS.toMillis(waitNanos.get()));
+        logger.info("Startup timing: " + breakdown);
+
+        Path environment = Path.of(TestConfig.getAllureResultsDirectory(), "environment.properties");
+        Properties properties = new Properties();
+        try {
+            if (Files.exists(environment)) {
+                try (var reader = Files.newBufferedReader(environment)) {
+                    properties.load(reader);
+                }
+            }
+            breakdown.forEach((key, value) -> properties.setProperty(key, String.valueOf(value)));
+            Files.createDirectories(environment.getParent());
+            try (Writer writer = Files.newBufferedWriter(environment)) {
+                properties.store(writer, null);
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to write startup timing: " + e.getMessage());
+        }
+    }
+
+    private static void timed(String name, Runnable task) {
+        long begin = System.nanoTime();
+        task.run();
+        timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+}
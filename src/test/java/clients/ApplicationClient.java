@@ -2,8 +2,9 @@ package clients;
 
 import config.TestConfig;
 import io.qameta.allure.Allure;
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import metrics.RequestTimer;
+import replay.TrafficRecorder;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -12,27 +13,39 @@ import java.util.Map;
 import static io.restassured.RestAssured.given;
 
 public class ApplicationClient {
-    private static final String BASE_URL = TestConfig.getBaseUrl();
     private static final String API_KEY = TestConfig.getApiKey();
     private static final String ENDPOINT = TestConfig.getEndpoint();
+    private static final String TRANSPORT = "restassured";
 
-    static {
-        RestAssured.baseURI = BASE_URL;
+    private final TargetSelector targetSelector;
+
+    public ApplicationClient() {
+        this(TargetSelector.getDefault());
+    }
+
+    public ApplicationClient(TargetSelector targetSelector) {
+        this.targetSelector = targetSelector;
     }
 
     public Response sendRequest(String token, String action) {
+        Target target = targetSelector.select(token);
+        target.begin();
+        long sentAtMicros = TrafficRecorder.isEnabled() ? TrafficRecorder.nowMicros() : 0;
+        RequestTimer timer = RequestTimer.start(TRANSPORT, target.getBaseUrl());
         try {
-            Map<String, String> formParams = new HashMap<>();
-            formParams.put("token", token);
-            formParams.put("action", action);
-
-            return given()
+            Response response = given()
+                    .baseUri(target.getBaseUrl())
                     .header("X-Api-Key", API_KEY)
                     .contentType("application/x-www-form-urlencoded")
                     .accept("application/json")
-                    .formParams(formParams)
+                    .formParams(formParams(token, action))
                     .post(ENDPOINT);
+            target.end(timer.stop(action, true, response.statusCode()), response.statusCode());
+            TrafficRecorder.record(sentAtMicros, token, action, true, response.statusCode());
+            return response;
         } catch (Exception e) {
+            target.end(timer.stop(action, true, RequestTimer.STATUS_ERROR), RequestTimer.STATUS_ERROR);
+            TrafficRecorder.record(sentAtMicros, token, action, true, RequestTimer.STATUS_ERROR);
             String errorDetails = String.format(
                     "Request failed: %s\nToken: %s\nAction: %s\nTime: %s",
                     e.getMessage(), token, action, LocalDateTime.now()
@@ -43,14 +56,31 @@ public class ApplicationClient {
     }
 
     public Response sendRequestWithoutApiKey(String token, String action) {
+        Target target = targetSelector.select(token);
+        target.begin();
+        long sentAtMicros = TrafficRecorder.isEnabled() ? TrafficRecorder.nowMicros() : 0;
+        RequestTimer timer = RequestTimer.start(TRANSPORT, target.getBaseUrl());
+        try {
+            Response response = given()
+                    .baseUri(target.getBaseUrl())
+                    .contentType("application/x-www-form-urlencoded")
+                    .accept("application/json")
+                    .formParams(formParams(token, action))
+                    .post(ENDPOINT);
+            target.end(timer.stop(action, false, response.statusCode()), response.statusCode());
+            TrafficRecorder.record(sentAtMicros, token, action, false, response.statusCode());
+            return response;
+        } catch (RuntimeException e) {
+            target.end(timer.stop(action, false, RequestTimer.STATUS_ERROR), RequestTimer.STATUS_ERROR);
+            TrafficRecorder.record(sentAtMicros, token, action, false, RequestTimer.STATUS_ERROR);
+            throw e;
+        }
+    }
+
+    public static Map<String, String> formParams(String token, String action) {
         Map<String, String> formParams = new HashMap<>();
         formParams.put("token", token);
         formParams.put("action", action);
-
-        return given()
-                .contentType("application/x-www-form-urlencoded")
-                .accept("application/json")
-                .formParams(formParams)
-                .post(ENDPOINT);
+        return formParams;
     }
 }
@@ -0,0 +1,22 @@
+package clients;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Транспорт для нагрузочных прогонов: тот же контракт, что у {@link ApplicationClient},
+ * но с асинхронным ответом.
+ */
+public interface ApplicationTransport {
+
+    CompletableFuture<ClientResponse> sendRequest(String token, String action);
+
+    CompletableFuture<ClientResponse> sendRequestWithoutApiKey(String token, String action);
+
+    static ApplicationTransport forName(String name) {
+        return switch (name) {
+            case "httpclient" -> new HttpClientTransport();
+            case "restassured" -> new RestAssuredTransport(new ApplicationClient());
+            default -> throw new IllegalArgumentException("Unknown transport: " + name);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package clients;
+
+public class ClientResponse {
+    private final int statusCode;
+    private final String body;
+
+    public ClientResponse(int statusCode, String body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClientResponse{statusCode=%d, body='%s'}", statusCode, body);
+    }
+}
@@ -0,0 +1,70 @@
+package clients;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Кодирование тела application/x-www-form-urlencoded для token/action без промежуточных коллекций.
+ * Префиксы и закодированные значения стандартных действий вычисляются один раз.
+ */
+public final class FormBody {
+    private static final byte[] TOKEN_KEY = ascii("token");
+    private static final byte[] ACTION_KEY = ascii("&action");
+    private static final Map<String, byte[]> ACTION_SUFFIXES = Map.of(
+            "LOGIN", ascii("&action=LOGIN"),
+            "ACTION", ascii("&action=ACTION"),
+            "LOGOUT", ascii("&action=LOGOUT")
+    );
+
+    private FormBody() {
+    }
+
+    public static byte[] encode(String token, String action) {
+        byte[] tokenValue = encodeValue(token);
+        byte[] actionSuffix = action == null ? ACTION_KEY : ACTION_SUFFIXES.get(action);
+        if (actionSuffix == null) {
+            actionSuffix = ascii("&action=" + URLEncoder.encode(action, StandardCharsets.UTF_8));
+        }
+
+        int tokenPart = TOKEN_KEY.length + (tokenValue == null ? 0 : 1 + tokenValue.length);
+        byte[] body = new byte[tokenPart + actionSuffix.length];
+        System.arraycopy(TOKEN_KEY, 0, body, 0, TOKEN_KEY.length);
+        if (tokenValue != null) {
+            body[TOKEN_KEY.length] = '=';
+            System.arraycopy(tokenValue, 0, body, TOKEN_KEY.length + 1, tokenValue.length);
+        }
+        System.arraycopy(actionSuffix, 0, body, tokenPart, actionSuffix.length);
+        return body;
+    }
+
+    private static byte[] encodeValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (!isUnreserved(value)) {
+            return ascii(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) value.charAt(i);
+        }
+        return bytes;
+    }
+
+    private static boolean isUnreserved(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean unreserved = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '*';
+            if (!unreserved) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,69 @@
+package clients;
+
+import config.TestConfig;
+import metrics.RequestTimer;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Неблокирующий транспорт на {@link HttpClient}: один клиент с общим пулом keep-alive соединений
+ * на все виртуальные пользователи, тела запросов кодируются через {@link FormBody}.
+ * Экземпляр сервиса для запроса выбирает {@link TargetSelector}.
+ */
+public class HttpClientTransport implements ApplicationTransport {
+    private static final String API_KEY = TestConfig.getApiKey();
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final TargetSelector targetSelector;
+
+    public HttpClientTransport() {
+        this(TargetSelector.getDefault());
+    }
+
+    public HttpClientTransport(TargetSelector targetSelector) {
+        this.targetSelector = targetSelector;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> sendRequest(String token, String action) {
+        Target target = targetSelector.select(token);
+        return send(target, requestBuilder(target, token, action).header("X-Api-Key", API_KEY).build(), action, true);
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> sendRequestWithoutApiKey(String token, String action) {
+        Target target = targetSelector.select(token);
+        return send(target, requestBuilder(target, token, action).build(), action, false);
+    }
+
+    private HttpRequest.Builder requestBuilder(Target target, String token, String action) {
+        return HttpRequest.newBuilder(target.getEndpointUri())
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(FormBody.encode(token, action)));
+    }
+
+    private CompletableFuture<ClientResponse> send(Target target, HttpRequest request, String action, boolean apiKey) {
+        target.begin();
+        RequestTimer timer = RequestTimer.start("httpclient", target.getBaseUrl());
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    int statusCode = error == null ? response.statusCode() : RequestTimer.STATUS_ERROR;
+                    target.end(timer.stop(action, apiKey, statusCode), statusCode);
+                })
+                .thenApply(response -> new ClientResponse(response.statusCode(), response.body()));
+    }
+}
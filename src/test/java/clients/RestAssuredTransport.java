@@ -0,0 +1,35 @@
+package clients;
+
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+
+public class RestAssuredTransport implements ApplicationTransport {
+    private final ApplicationClient client;
+
+    public RestAssuredTransport(ApplicationClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> sendRequest(String token, String action) {
+        try {
+            return CompletableFuture.completedFuture(toClientResponse(client.sendRequest(token, action)));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> sendRequestWithoutApiKey(String token, String action) {
+        try {
+            return CompletableFuture.completedFuture(toClientResponse(client.sendRequestWithoutApiKey(token, action)));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static ClientResponse toClientResponse(Response response) {
+        return new ClientResponse(response.getStatusCode(), response.getBody().asString());
+    }
+}
@@ -0,0 +1,64 @@
+package clients;
+
+import metrics.LatencyHistogram;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Экземпляр тестируемого сервиса: адрес, число запросов в полете, задержки и ошибки (5xx и сбои транспорта).
+ */
+public class Target {
+    private final String baseUrl;
+    private final URI endpointUri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public Target(String baseUrl, String endpoint) {
+        this.baseUrl = baseUrl;
+        this.endpointUri = URI.create(baseUrl + endpoint);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public URI getEndpointUri() {
+        return endpointUri;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getRequests() {
+        return histogram.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    void end(long durationNanos, int statusCode) {
+        outstanding.decrementAndGet();
+        histogram.recordNanos(durationNanos);
+        if (statusCode < 0 || statusCode >= 500) {
+            errors.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+}
@@ -0,0 +1,87 @@
+package clients;
+
+import config.TestConfig;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Распределение запросов между экземплярами сервиса из {@code app.base.url}.
+ * <p>
+ * {@code sticky} (по умолчанию) направляет все запросы токена на один экземпляр, поскольку сессия
+ * LOGIN → ACTION → LOGOUT хранится на нем. {@code round-robin} и {@code least-outstanding} подходят
+ * только для кластера с общим хранилищем сессий.
+ */
+public class TargetSelector {
+
+    public enum Policy {
+        STICKY, ROUND_ROBIN, LEAST_OUTSTANDING;
+
+        public static Policy forName(String name) {
+            return switch (name.trim()) {
+                case "sticky" -> STICKY;
+                case "round-robin" -> ROUND_ROBIN;
+                case "least-outstanding" -> LEAST_OUTSTANDING;
+                default -> throw new IllegalArgumentException("Unknown balancing policy: " + name);
+            };
+        }
+    }
+
+    private final Target[] targets;
+    private final Policy policy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public TargetSelector(List<String> baseUrls, String endpoint, Policy policy) {
+        this.targets = baseUrls.stream().map(url -> new Target(url, endpoint)).toArray(Target[]::new);
+        this.policy = policy;
+    }
+
+    public static TargetSelector getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    public Target select(String token) {
+        if (targets.length == 1) {
+            return targets[0];
+        }
+        return switch (policy) {
+            case STICKY -> token == null ? nextTarget() : targets[Math.floorMod(spread(token.hashCode()), targets.length)];
+            case ROUND_ROBIN -> nextTarget();
+            case LEAST_OUTSTANDING -> leastOutstanding();
+        };
+    }
+
+    public List<Target> getTargets() {
+        return List.of(targets);
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    private Target nextTarget() {
+        return targets[Math.floorMod(next.getAndIncrement(), targets.length)];
+    }
+
+    private Target leastOutstanding() {
+        // Обход с разных стартовых позиций, чтобы при равенстве нагрузка не копилась на первом экземпляре
+        int start = Math.floorMod(next.getAndIncrement(), targets.length);
+        Target best = targets[start];
+        for (int i = 1; i < targets.length && best.getOutstanding() > 0; i++) {
+            Target candidate = targets[(start + i) % targets.length];
+            if (candidate.getOutstanding() < best.getOutstanding()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Holder {
+        private static final TargetSelector INSTANCE = new TargetSelector(TestConfig.getBaseUrls(),
+                TestConfig.getEndpoint(), Policy.forName(TestConfig.getBalancingPolicy()));
+    }
+}
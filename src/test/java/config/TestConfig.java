@@ -2,6 +2,8 @@ package config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Logger;
 
@@ -10,11 +12,17 @@ public class TestConfig {
     private static final Logger logger = Logger.getLogger(TestConfig.class.getName());
 
     private static final String DEFAULT_BASE_URL = "http://localhost:8080";
+    private static final String DEFAULT_BALANCING_POLICY = "sticky";
     private static final String DEFAULT_API_KEY = "qazWSXedc";
     private static final String DEFAULT_ENDPOINT = "/endpoint";
     private static final int DEFAULT_MOCK_PORT = 8888;
     private static final String DEFAULT_MOCK_AUTH_ENDPOINT = "/auth";
     private static final String DEFAULT_MOCK_ACTION_ENDPOINT = "/doAction";
+    private static final String DEFAULT_MOCK_BACKEND = "wiremock";
+    private static final int DEFAULT_MOCK_WORKERS = Runtime.getRuntime().availableProcessors() * 2;
+    private static final int DEFAULT_MOCK_TOKEN_COUNTERS_MAX = 0;
+    private static final int DEFAULT_MOCK_ASYNC_RESPONSE_THREADS = 4;
+    private static final String DEFAULT_ALLURE_RESULTS_DIRECTORY = "target/allure-results";
     private static final String DEFAULT_TOKEN_CHARS = "ABCDEF0123456789";
     private static final int DEFAULT_TOKEN_LENGTH = 32;
 
@@ -35,45 +43,144 @@ public class TestConfig {
         }
     }
 
+    public static String getProperty(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid " + key + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLongProperty(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid " + key + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static double getDoubleProperty(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid " + key + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Первый адрес из {@code app.base.url}.
+     */
     public static String getBaseUrl() {
-        return properties.getProperty("app.base.url", DEFAULT_BASE_URL);
+        return getBaseUrls().get(0);
+    }
+
+    /**
+     * Адреса экземпляров сервиса: {@code app.base.url} через запятую.
+     */
+    public static List<String> getBaseUrls() {
+        List<String> baseUrls = Arrays.stream(getProperty("app.base.url", DEFAULT_BASE_URL).split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        return baseUrls.isEmpty() ? List.of(DEFAULT_BASE_URL) : baseUrls;
+    }
+
+    /**
+     * Политика распределения запросов между экземплярами: sticky, round-robin или least-outstanding.
+     */
+    public static String getBalancingPolicy() {
+        return getProperty("app.balancing.policy", DEFAULT_BALANCING_POLICY);
     }
 
     public static String getApiKey() {
-        return properties.getProperty("app.api.key", DEFAULT_API_KEY);
+        return getProperty("app.api.key", DEFAULT_API_KEY);
     }
 
     public static String getEndpoint() {
-        return properties.getProperty("app.endpoint", DEFAULT_ENDPOINT);
+        return getProperty("app.endpoint", DEFAULT_ENDPOINT);
     }
 
     public static int getMockPort() {
-        try {
-            return Integer.parseInt(properties.getProperty("mock.port", String.valueOf(DEFAULT_MOCK_PORT)));
-        } catch (NumberFormatException e) {
-            logger.warning("Invalid mock.port, using default: " + DEFAULT_MOCK_PORT);
-            return DEFAULT_MOCK_PORT;
-        }
+        return getIntProperty("mock.port", DEFAULT_MOCK_PORT);
     }
 
     public static String getMockAuthEndpoint() {
-        return properties.getProperty("mock.auth.endpoint", DEFAULT_MOCK_AUTH_ENDPOINT);
+        return getProperty("mock.auth.endpoint", DEFAULT_MOCK_AUTH_ENDPOINT);
     }
 
     public static String getMockActionEndpoint() {
-        return properties.getProperty("mock.action.endpoint", DEFAULT_MOCK_ACTION_ENDPOINT);
+        return getProperty("mock.action.endpoint", DEFAULT_MOCK_ACTION_ENDPOINT);
+    }
+
+    public static boolean isSimulatorEnabled() {
+        return Boolean.parseBoolean(getProperty("app.simulator.enabled", "false"));
+    }
+
+    public static String getSimulatorMockUrl() {
+        return getProperty("simulator.mock.url", "http://localhost:" + getMockPort());
+    }
+
+    public static String getMockBackend() {
+        return getProperty("mock.backend", DEFAULT_MOCK_BACKEND);
+    }
+
+    /**
+     * Потоки WireMock, отправляющие ответы с задержкой из профиля; потоки Jetty на время задержки не заняты.
+     */
+    public static int getMockAsyncResponseThreads() {
+        return getIntProperty("mock.async.response.threads", DEFAULT_MOCK_ASYNC_RESPONSE_THREADS);
+    }
+
+    public static int getMockWorkers() {
+        return getIntProperty("mock.workers", DEFAULT_MOCK_WORKERS);
+    }
+
+    /**
+     * Сколько токенов мок считает поштучно; вызовы с остальными токенами попадают только в общие счетчики.
+     * При 0 тело запроса к моку без стабов по токену не разбирается.
+     */
+    public static int getMockTokenCountersMax() {
+        return getIntProperty("mock.token.counters.max", DEFAULT_MOCK_TOKEN_COUNTERS_MAX);
+    }
+
+    public static String getMockCallsReport() {
+        return getProperty("mock.calls.report", "target/mock-calls.txt");
+    }
+
+    /**
+     * Каталог результатов Allure; Maven передает его и в тесты, и в exec-профили.
+     */
+    public static String getAllureResultsDirectory() {
+        return getProperty("allure.results.directory", DEFAULT_ALLURE_RESULTS_DIRECTORY);
+    }
+
+    public static boolean isMockJournalEnabled() {
+        return Boolean.parseBoolean(getProperty("mock.journal.enabled", "true"));
+    }
+
+    /**
+     * Профиль задержек и ошибок мока /auth в нагрузочных прогонах, см. {@code mock.MockProfile}.
+     */
+    public static String getMockAuthProfile() {
+        return getProperty("mock.auth.profile", "");
+    }
+
+    public static String getMockActionProfile() {
+        return getProperty("mock.action.profile", "");
     }
 
     public static String getTokenValidChars() {
-        return properties.getProperty("token.valid.chars", DEFAULT_TOKEN_CHARS);
+        return getProperty("token.valid.chars", DEFAULT_TOKEN_CHARS);
     }
 
     public static int getTokenLength() {
-        try {
-            return Integer.parseInt(properties.getProperty("test.token.length", String.valueOf(DEFAULT_TOKEN_LENGTH)));
-        } catch (NumberFormatException e) {
-            logger.warning("Invalid test.token.length, using default: " + DEFAULT_TOKEN_LENGTH);
-            return DEFAULT_TOKEN_LENGTH;
-        }
+        return getIntProperty("test.token.length", DEFAULT_TOKEN_LENGTH);
     }
 }
@@ -0,0 +1,31 @@
+package fuzz;
+
+/**
+ * Сгенерированный токен и ожидаемый результат валидации.
+ *
+ * @param category способ генерации, для отчета
+ */
+public record TokenCase(long index, String category, String token, boolean expectedValid) {
+
+    /**
+     * Токен с экранированными непечатаемыми и не-ASCII символами.
+     */
+    public String printableToken() {
+        StringBuilder printable = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c >= 0x20 && c < 0x7F) {
+                printable.append(c);
+            } else {
+                printable.append(String.format("\\u%04X", (int) c));
+            }
+        }
+        return printable.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s [%s] (%d chars, %s)", index, category, printableToken(), token.length(),
+                expectedValid ? "valid" : "invalid");
+    }
+}
@@ -0,0 +1,189 @@
+package fuzz;
+
+import config.TestConfig;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Воспроизводимый корпус токенов для проверки валидации: граничные длины, смешанные алфавиты, регистр,
+ * почти валидные токены и Unicode. Случай с номером {@code i} однозначно определяется зерном и номером,
+ * поэтому поток генерируется лениво, делится для параллельной обработки и повторяется при том же зерне.
+ * <p>
+ * Ожидание вычисляется правилом валидации (длина {@code test.token.length} и символы {@code token.valid.chars}),
+ * а не категорией.
+ */
+public final class TokenCorpus {
+    private static final String VALID_CHARS = TestConfig.getTokenValidChars();
+    private static final int TOKEN_LENGTH = TestConfig.getTokenLength();
+    private static final String ASCII_NOISE = "GHIJKLMNOPQRSTUVWXYZghijklmnopqrstuvwxyz!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~ \t";
+    private static final String[] UNICODE_NOISE = {
+            "\u0410", "\u0412", "\u0415", "\u0421", // кириллические А, В, Е, С
+            "\uFF10", "\uFF21", "\u0660", "\u0966", // полноширинные 0 и A, арабская и деванагари цифры 0
+            "\u00C4", "A\u0308", "\u00DF", "\u0131", // Ä, A с комбинируемым знаком, ß, i без точки
+            "\u200B", "\u00A0", "\uFEFF", "\uD83D\uDE00" // zero-width space, NBSP, BOM, эмодзи (суррогатная пара)
+    };
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public TokenCorpus(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Ленивый поток случаев с номерами {@code [0, size)}.
+     */
+    public Stream<TokenCase> stream(long size) {
+        return StreamSupport.stream(new CaseSpliterator(0, size), false);
+    }
+
+    public TokenCase caseAt(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed + index * GOLDEN_GAMMA));
+        Category category = Category.VALUES[random.nextInt(Category.VALUES.length)];
+        String token = category.generate(random);
+        return new TokenCase(index, category.name(), token, isValid(token));
+    }
+
+    public static boolean isValid(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (VALID_CHARS.indexOf(token.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static char[] validChars(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = VALID_CHARS.charAt(random.nextInt(VALID_CHARS.length()));
+        }
+        return chars;
+    }
+
+    private enum Category {
+        VALID {
+            @Override
+            String generate(SplittableRandom random) {
+                return new String(validChars(random, TOKEN_LENGTH));
+            }
+        },
+        BOUNDARY_LENGTH {
+            @Override
+            String generate(SplittableRandom random) {
+                int[] lengths = {0, 1, TOKEN_LENGTH - 1, TOKEN_LENGTH + 1, TOKEN_LENGTH * 2, random.nextInt(TOKEN_LENGTH * 4)};
+                return new String(validChars(random, Math.max(0, lengths[random.nextInt(lengths.length)])));
+            }
+        },
+        CASE_VARIANT {
+            @Override
+            String generate(SplittableRandom random) {
+                char[] chars = validChars(random, TOKEN_LENGTH);
+                int changes = 1 + random.nextInt(TOKEN_LENGTH);
+                for (int i = 0; i < changes; i++) {
+                    int position = random.nextInt(TOKEN_LENGTH);
+                    chars[position] = Character.isUpperCase(chars[position])
+                            ? Character.toLowerCase(chars[position])
+                            : Character.toUpperCase(chars[position]);
+                }
+                return new String(chars);
+            }
+        },
+        NEAR_VALID {
+            @Override
+            String generate(SplittableRandom random) {
+                char[] chars = validChars(random, TOKEN_LENGTH);
+                chars[random.nextInt(TOKEN_LENGTH)] = ASCII_NOISE.charAt(random.nextInt(ASCII_NOISE.length()));
+                return new String(chars);
+            }
+        },
+        UNICODE {
+            @Override
+            String generate(SplittableRandom random) {
+                String token = new String(validChars(random, TOKEN_LENGTH));
+                int position = random.nextInt(TOKEN_LENGTH);
+                return token.substring(0, position) + UNICODE_NOISE[random.nextInt(UNICODE_NOISE.length)]
+                        + token.substring(position + 1);
+            }
+        },
+        ALPHABET_MIX {
+            @Override
+            String generate(SplittableRandom random) {
+                String alphabet = VALID_CHARS + ASCII_NOISE;
+                char[] chars = new char[TOKEN_LENGTH];
+                // Доля посторонних символов от почти нуля до половины
+                int noiseBound = 1 + random.nextInt(TOKEN_LENGTH / 2 + 1);
+                for (int i = 0; i < TOKEN_LENGTH; i++) {
+                    chars[i] = random.nextInt(TOKEN_LENGTH) < noiseBound
+                            ? alphabet.charAt(random.nextInt(alphabet.length()))
+                            : VALID_CHARS.charAt(random.nextInt(VALID_CHARS.length()));
+                }
+                return new String(chars);
+            }
+        };
+
+        private static final Category[] VALUES = values();
+
+        abstract String generate(SplittableRandom random);
+    }
+
+    /**
+     * Диапазон номеров случаев, делится пополам для параллельных потоков.
+     */
+    private final class CaseSpliterator implements Spliterator<TokenCase> {
+        private long next;
+        private final long end;
+
+        private CaseSpliterator(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TokenCase> action) {
+            if (next >= end) {
+                return false;
+            }
+            action.accept(caseAt(next++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<TokenCase> trySplit() {
+            long middle = next + (end - next) / 2;
+            if (middle <= next) {
+                return null;
+            }
+            CaseSpliterator prefix = new CaseSpliterator(next, middle);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package fuzz;
+
+import clients.ApplicationTransport;
+import clients.ClientResponse;
+import config.TestConfig;
+import load.LoadRunner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фаззинг валидации токена: поток случаев {@link TokenCorpus} отправляется запросом LOGIN пачками
+ * по {@code fuzz.batch.size} параллельных запросов. Повторные токены отсеиваются {@link BloomFilter},
+ * ответ сверяется с правилом: 200 для валидного токена, 400 для невалидного.
+ * Расхождения пишутся в {@code fuzz.mismatches.file}. Принятые токены (200) закрываются запросом LOGOUT,
+ * чтобы после прогона на сервисе не оставалось открытых сессий.
+ * <p>
+ * Запуск: {@code mvn -Pfuzz -Dfuzz.cases=1000000 -Dfuzz.seed=42}
+ */
+public class TokenFuzzRunner {
+    private static final long DEFAULT_CASES = 1_000_000;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final double DEFAULT_BLOOM_FPP = 0.001;
+    private static final int DEFAULT_REPORT_INTERVAL_SECONDS = 5;
+    private static final int PRINTED_MISMATCHES = 20;
+
+    private final ApplicationTransport transport;
+    private final BloomFilter triedTokens;
+    private final Map<String, long[]> categories = new TreeMap<>();
+    private final List<String> printedMismatches = new ArrayList<>();
+    private long sent;
+    private long duplicates;
+    private long mismatches;
+    private long errors;
+    private long unclosedSessions;
+
+    public TokenFuzzRunner(ApplicationTransport transport, long expectedCases, double bloomFpp) {
+        this.transport = transport;
+        this.triedTokens = new BloomFilter(Math.max(1, expectedCases), bloomFpp);
+    }
+
+    public static void main(String[] args) throws IOException {
+        long seed = TestConfig.getLongProperty("fuzz.seed", ThreadLocalRandom.current().nextLong());
+        long cases = TestConfig.getLongProperty("fuzz.cases", DEFAULT_CASES);
+        int batchSize = TestConfig.getIntProperty("fuzz.batch.size", DEFAULT_BATCH_SIZE);
+        double bloomFpp = TestConfig.getDoubleProperty("fuzz.bloom.fpp", DEFAULT_BLOOM_FPP);
+        Path mismatchesFile = Path.of(TestConfig.getProperty("fuzz.mismatches.file", "target/fuzz/mismatches.txt"));
+        String transport = TestConfig.getProperty("fuzz.transport", "httpclient");
+
+        System.out.printf("Token fuzzing: seed=%d, cases=%d, batch=%d, transport=%s%n", seed, cases, batchSize, transport);
+        TokenFuzzRunner runner = new TokenFuzzRunner(ApplicationTransport.forName(transport), cases, bloomFpp);
+        System.out.printf("Bloom filter: %d KB for fpp=%s%n", runner.triedTokens.sizeInBytes() / 1024, bloomFpp);
+
+        Files.createDirectories(mismatchesFile.toAbsolutePath().getParent());
+        LoadRunner.startMock(TestConfig.getProperty("fuzz.mock.backend", "fast"));
+        double elapsedSeconds;
+        try (BufferedWriter mismatchLog = Files.newBufferedWriter(mismatchesFile)) {
+            mismatchLog.write("# seed=" + seed + System.lineSeparator());
+            elapsedSeconds = runner.run(new TokenCorpus(seed), cases, batchSize, mismatchLog);
+        } finally {
+            LoadRunner.stopMock();
+        }
+        runner.printReport(elapsedSeconds, mismatchesFile);
+        if (runner.mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    public double run(TokenCorpus corpus, long cases, int batchSize, BufferedWriter mismatchLog) throws IOException {
+        long start = System.nanoTime();
+        long reportIntervalNanos = TimeUnit.SECONDS.toNanos(
+                TestConfig.getIntProperty("fuzz.report.interval.seconds", DEFAULT_REPORT_INTERVAL_SECONDS));
+        long nextReport = start + reportIntervalNanos;
+        List<TokenCase> batch = new ArrayList<>(batchSize);
+        List<CompletableFuture<ClientResponse>> responses = new ArrayList<>(batchSize);
+
+        Iterator<TokenCase> iterator = corpus.stream(cases).iterator();
+        while (iterator.hasNext()) {
+            TokenCase tokenCase = iterator.next();
+            if (!triedTokens.add(tokenCase.token())) {
+                duplicates++;
+                continue;
+            }
+            batch.add(tokenCase);
+            responses.add(transport.sendRequest(tokenCase.token(), "LOGIN"));
+            if (batch.size() == batchSize || !iterator.hasNext()) {
+                check(batch, responses, mismatchLog);
+                batch.clear();
+                responses.clear();
+                long now = System.nanoTime();
+                if (now >= nextReport) {
+                    System.out.printf("[%5ds] sent=%d (%.0f req/s) duplicates=%d mismatches=%d errors=%d%n",
+                            TimeUnit.NANOSECONDS.toSeconds(now - start), sent, sent * 1e9 / (now - start),
+                            duplicates, mismatches, errors);
+                    nextReport = now + reportIntervalNanos;
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void check(List<TokenCase> batch, List<CompletableFuture<ClientResponse>> responses,
+                       BufferedWriter mismatchLog) throws IOException {
+        awaitAll(responses);
+        List<CompletableFuture<ClientResponse>> logouts = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            TokenCase tokenCase = batch.get(i);
+            long[] counters = categories.computeIfAbsent(tokenCase.category(), category -> new long[3]);
+            counters[0]++;
+            sent++;
+            int statusCode;
+            try {
+                statusCode = responses.get(i).join().getStatusCode();
+            } catch (CompletionException e) {
+                counters[2]++;
+                errors++;
+                continue;
+            }
+            if (statusCode == 200) {
+                logouts.add(transport.sendRequest(tokenCase.token(), "LOGOUT"));
+            }
+            int expectedStatus = tokenCase.expectedValid() ? 200 : 400;
+            if (statusCode != expectedStatus) {
+                counters[1]++;
+                mismatches++;
+                String line = String.format("expected %d but was %d: %s", expectedStatus, statusCode, tokenCase);
+                mismatchLog.write(line + System.lineSeparator());
+                if (printedMismatches.size() < PRINTED_MISMATCHES) {
+                    printedMismatches.add(line);
+                }
+            }
+        }
+        awaitAll(logouts);
+        for (CompletableFuture<ClientResponse> logout : logouts) {
+            try {
+                if (logout.join().getStatusCode() != 200) {
+                    unclosedSessions++;
+                }
+            } catch (CompletionException e) {
+                unclosedSessions++;
+            }
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<ClientResponse>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+    }
+
+    private void printReport(double elapsedSeconds, Path mismatchesFile) {
+        System.out.printf("%nSent %d cases in %.1fs (%.0f validations/s), duplicates skipped: %d%n",
+                sent, elapsedSeconds, sent / elapsedSeconds, duplicates);
+        System.out.printf("%-16s %10s %11s %8s%n", "Category", "Cases", "Mismatches", "Errors");
+        categories.forEach((category, counters) ->
+                System.out.printf("%-16s %10d %11d %8d%n", category, counters[0], counters[1], counters[2]));
+        System.out.printf("Mismatches: %d, transport errors: %d, sessions not closed by LOGOUT: %d%n",
+                mismatches, errors, unclosedSessions);
+        printedMismatches.forEach(System.out::println);
+        if (mismatches > printedMismatches.size()) {
+            System.out.println("All mismatches: " + mismatchesFile.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package helpers;
+
+public class HttpServerHelper {
+
+    private HttpServerHelper() {
+    }
+
+    /**
+     * Включает TCP_NODELAY для {@link com.sun.net.httpserver.HttpServer}, если он не задан явно.
+     * Без него ответы ждут delayed ACK клиента (~40 мс на запрос). Вызывается до создания первого сервера.
+     */
+    public static void enableTcpNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+}
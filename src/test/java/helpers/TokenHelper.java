@@ -1,28 +1,49 @@
 package helpers;
 
-import com.github.javafaker.Faker;
 import config.TestConfig;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 public class TokenHelper {
-    private static final Faker faker = new Faker();
-    private static final String VALID_CHARS = TestConfig.getTokenValidChars();
-    private static final int TOKEN_LENGTH = TestConfig.getTokenLength();
+    static final char[] VALID_CHARS = TestConfig.getTokenValidChars().toCharArray();
+    static final char[] INVALID_CHARS = "abcdefghijklmnopqrstuvwxyz!@#$%^&*()_+-=[]{}|;:,.<>?".toCharArray();
+    static final int TOKEN_LENGTH = TestConfig.getTokenLength();
 
     public static String generateValidToken() {
         return generateToken(VALID_CHARS);
     }
 
     public static String generateInvalidToken() {
-        String invalidChars = "abcdefghijklmnopqrstuvwxyz!@#$%^&*()_+-=[]{}|;:,.<>?";
-        return generateToken(invalidChars);
+        return generateToken(INVALID_CHARS);
+    }
+
+    private static String generateToken(char[] alphabet) {
+        char[] token = new char[TOKEN_LENGTH];
+        fillRandom(token, 0, TOKEN_LENGTH, alphabet);
+        return new String(token);
     }
 
-    private static String generateToken(String validChars) {
-        StringBuilder token = new StringBuilder();
-        for (int i = 0; i < TokenHelper.TOKEN_LENGTH; i++) {
-            char randomChar = validChars.charAt(faker.random().nextInt(validChars.length()));
-            token.append(randomChar);
+    static void fillRandom(char[] buffer, int from, int to, char[] alphabet) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (Integer.bitCount(alphabet.length) != 1) {
+            for (int i = from; i < to; i++) {
+                buffer[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            return;
+        }
+        // Для алфавита из 2^n символов один nextLong() дает 64/n символов
+        int bits = Integer.numberOfTrailingZeros(alphabet.length);
+        int mask = alphabet.length - 1;
+        long word = 0;
+        int available = 0;
+        for (int i = from; i < to; i++) {
+            if (available < bits) {
+                word = random.nextLong();
+                available = Long.SIZE;
+            }
+            buffer[i] = alphabet[(int) word & mask];
+            word >>>= bits;
+            available -= bits;
         }
-        return token.toString();
     }
 }
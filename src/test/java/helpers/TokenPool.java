@@ -0,0 +1,85 @@
+package helpers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Заранее сгенерированный набор уникальных токенов для нагрузочных прогонов.
+ * <p>
+ * Уникальность гарантируется построением: последние символы токена кодируют его порядковый номер
+ * в системе счисления алфавита, остальные символы случайны. Непересекающиеся диапазоны номеров
+ * дают непересекающиеся наборы токенов.
+ */
+public class TokenPool {
+    private static final int INDEX_BITS = 40;
+
+    private final String[] tokens;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private TokenPool(String[] tokens) {
+        this.tokens = tokens;
+    }
+
+    public static TokenPool valid(int size) {
+        return valid(0, size);
+    }
+
+    public static TokenPool valid(long firstIndex, int size) {
+        return generate(TokenHelper.VALID_CHARS, firstIndex, size);
+    }
+
+    public static TokenPool invalid(int size) {
+        return generate(TokenHelper.INVALID_CHARS, 0, size);
+    }
+
+    public String next() {
+        int index = cursor.getAndIncrement();
+        if (index >= tokens.length) {
+            throw new IllegalStateException("Token pool exhausted: " + tokens.length + " tokens used");
+        }
+        return tokens[index];
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    public int remaining() {
+        return Math.max(0, tokens.length - cursor.get());
+    }
+
+    private static TokenPool generate(char[] alphabet, long firstIndex, int size) {
+        int length = TokenHelper.TOKEN_LENGTH;
+        int indexDigits = Math.min(length, indexDigits(alphabet.length));
+        if (alphabet.length < 2 || firstIndex < 0 || firstIndex + size > capacity(alphabet.length, indexDigits)) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot generate %d unique tokens from index %d with %d chars of length %d",
+                    size, firstIndex, alphabet.length, length));
+        }
+
+        String[] tokens = new String[size];
+        char[] buffer = new char[length];
+        int randomPart = length - indexDigits;
+        for (int i = 0; i < size; i++) {
+            TokenHelper.fillRandom(buffer, 0, randomPart, alphabet);
+            long index = firstIndex + i;
+            for (int position = length - 1; position >= randomPart; position--) {
+                buffer[position] = alphabet[(int) (index % alphabet.length)];
+                index /= alphabet.length;
+            }
+            tokens[i] = new String(buffer);
+        }
+        return new TokenPool(tokens);
+    }
+
+    private static int indexDigits(int radix) {
+        return (int) Math.ceil(INDEX_BITS / (Math.log(radix) / Math.log(2)));
+    }
+
+    private static long capacity(int radix, int digits) {
+        long capacity = 1;
+        for (int i = 0; i < digits && capacity <= Long.MAX_VALUE / radix; i++) {
+            capacity *= radix;
+        }
+        return capacity;
+    }
+}
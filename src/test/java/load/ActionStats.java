@@ -0,0 +1,46 @@
+package load;
+
+import metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ActionStats {
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public ActionStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long latencyNanos, boolean success) {
+        histogram.recordNanos(latencyNanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Добавляет результаты другого источника, например воркера распределенного прогона.
+     */
+    public void merge(LatencyHistogram otherHistogram, long otherErrors) {
+        histogram.add(otherHistogram);
+        errors.add(otherErrors);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getRequests() {
+        return histogram.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
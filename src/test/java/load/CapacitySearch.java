@@ -0,0 +1,232 @@
+package load;
+
+import clients.ApplicationTransport;
+import metrics.LatencyHistogram;
+import metrics.RequestMetrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Поиск предельной устойчивой интенсивности открытой модели: интенсивность умножается на
+ * {@code capacity.step.factor}, пока ступень укладывается в SLO (p99 с поправкой на coordinated omission
+ * и доля ошибок вместе с пропущенными отправками), затем бинарный поиск между последней успешной
+ * и первой неуспешной ступенью. Последняя ступень геометрического роста выполняется ровно на
+ * {@code capacity.max.rate}; если и она укладывается в SLO, колено не найдено. Каждая ступень
+ * выдерживается {@code capacity.hold.seconds} на свежей статистике, после нее открытые сессии закрываются LOGOUT.
+ * <p>
+ * Запуск: {@code mvn -Pcapacity -Dcapacity.slo.p99.millis=100 -Dcapacity.required.rate=2000}
+ */
+public class CapacitySearch {
+    private static final Logger logger = Logger.getLogger(CapacitySearch.class.getName());
+    private static final String CSV_HEADER = "step,stage,target_rps,achieved_rps,requests,errors,missed,error_rate,"
+            + "p50_ms,p99_ms,p99.9_ms,max_ms,verdict,closed_sessions";
+
+    private final ApplicationTransport transport;
+    private final Supplier<String> tokenSource;
+    private final WorkloadMix mix;
+    private final int holdSeconds;
+    private final double sloP99Millis;
+    private final double sloErrorRate;
+    private final List<Step> steps = new ArrayList<>();
+
+    public CapacitySearch(ApplicationTransport transport, Supplier<String> tokenSource, WorkloadMix mix,
+                          int holdSeconds, double sloP99Millis, double sloErrorRate) {
+        this.transport = transport;
+        this.tokenSource = tokenSource;
+        this.mix = mix;
+        this.holdSeconds = holdSeconds;
+        this.sloP99Millis = sloP99Millis;
+        this.sloErrorRate = sloErrorRate;
+    }
+
+    public static void main(String[] args) throws IOException {
+        WorkloadMix mix = "mix".equals(LoadConfig.getScenario()) ? LoadRunner.loadMix() : null;
+        CapacitySearch search = new CapacitySearch(ApplicationTransport.forName(LoadConfig.getTransport()),
+                LoadRunner.tokenSource(), mix, LoadConfig.getCapacityHoldSeconds(),
+                LoadConfig.getCapacitySloP99Millis(), LoadConfig.getCapacitySloErrorRate());
+        logger.info(String.format("Capacity search: SLO p99 <= %dms, error rate <= %s, hold=%ds, scenario=%s",
+                LoadConfig.getCapacitySloP99Millis(), LoadConfig.getCapacitySloErrorRate(),
+                LoadConfig.getCapacityHoldSeconds(), mix == null ? "fullflow" : mix));
+
+        Step knee;
+        LoadRunner.startMock(LoadConfig.getMockBackend());
+        try {
+            search.warmUp(LoadConfig.getCapacityStartRate(), LoadConfig.getCapacityWarmupSeconds());
+            knee = search.run(LoadConfig.getCapacityStartRate(), LoadConfig.getCapacityMaxRate(),
+                    LoadConfig.getCapacityStepFactor(), LoadConfig.getCapacityPrecision());
+        } finally {
+            LoadRunner.stopMock();
+        }
+
+        search.print(System.out, knee);
+        Path output = Path.of(LoadConfig.getCapacityOutput());
+        search.writeCsv(output);
+        System.out.println("Steps: " + output.toAbsolutePath());
+        RequestMetrics.export();
+
+        double requiredRate = LoadConfig.getCapacityRequiredRate();
+        if (requiredRate > 0 && (knee == null || knee.targetRate() < requiredRate)) {
+            System.out.printf(Locale.ROOT, "Capacity %.1f req/s is below required %.1f req/s%n",
+                    knee == null ? 0 : knee.targetRate(), requiredRate);
+            System.exit(1);
+        }
+    }
+
+    public void warmUp(double rate, int seconds) {
+        if (seconds > 0) {
+            OpenModelRunner runner = newRunner(new RequestExecutor(transport, tokenSource));
+            runner.run(List.of(new RatePhase(rate, seconds)));
+            runner.closeSessions();
+        }
+    }
+
+    /**
+     * @return последняя ступень, уложившаяся в SLO (колено или ступень {@code maxRate}, если SLO выдержано
+     * до нее, см. {@link #heldUpToMaxRate()}), или null, если не уложилась даже начальная
+     */
+    public Step run(double startRate, double maxRate, double stepFactor, double precision) {
+        if (stepFactor <= 1) {
+            throw new IllegalArgumentException("capacity.step.factor must be greater than 1: " + stepFactor);
+        }
+        Step lastPassed = null;
+        Step firstFailed = null;
+        for (double rate = Math.min(startRate, maxRate); ; rate = Math.min(rate * stepFactor, maxRate)) {
+            Step step = hold("step", rate);
+            if (!step.passed()) {
+                firstFailed = step;
+                break;
+            }
+            lastPassed = step;
+            if (rate >= maxRate) {
+                break;
+            }
+        }
+        if (lastPassed == null || firstFailed == null) {
+            return lastPassed;
+        }
+
+        double low = lastPassed.targetRate();
+        double high = firstFailed.targetRate();
+        while ((high - low) / low > precision) {
+            Step step = hold("binary", (low + high) / 2);
+            if (step.passed()) {
+                lastPassed = step;
+                low = step.targetRate();
+            } else {
+                high = step.targetRate();
+            }
+        }
+        return lastPassed;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return true, если ни одна ступень не нарушила SLO: предел выше {@code capacity.max.rate}
+     */
+    public boolean heldUpToMaxRate() {
+        return !steps.isEmpty() && steps.stream().allMatch(Step::passed);
+    }
+
+    private Step hold(String stage, double rate) {
+        RequestExecutor executor = new RequestExecutor(transport, tokenSource);
+        OpenModelRunner runner = newRunner(executor);
+        double elapsedSeconds = runner.run(List.of(new RatePhase(rate, holdSeconds)));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long errors = 0;
+        for (ActionStats action : executor.getStats(LoadRunner.reportedTemplates(mix))) {
+            histogram.add(action.getHistogram());
+            errors += action.getErrors();
+        }
+        long requests = histogram.getTotalCount();
+        long scheduled = runner.getScheduled();
+        double errorRate = scheduled == 0 ? 0 : (double) (errors + runner.getMissed()) / scheduled;
+        double p99Millis = histogram.getValueAtPercentile(99) / 1_000.0;
+
+        String verdict;
+        if (requests == 0) {
+            verdict = "fail:no-responses";
+        } else if (p99Millis > sloP99Millis) {
+            verdict = errorRate > sloErrorRate ? "fail:p99|errors" : "fail:p99";
+        } else {
+            verdict = errorRate > sloErrorRate ? "fail:errors" : "pass";
+        }
+        Step step = new Step(steps.size() + 1, stage, rate, requests / elapsedSeconds, requests, errors,
+                runner.getMissed(), errorRate, histogram.getValueAtPercentile(50) / 1_000.0, p99Millis,
+                histogram.getValueAtPercentile(99.9) / 1_000.0, histogram.getMaxMicros() / 1_000.0, verdict,
+                runner.closeSessions());
+        steps.add(step);
+        System.out.println(step.format());
+        return step;
+    }
+
+    private OpenModelRunner newRunner(RequestExecutor executor) {
+        return OpenModelRunner.fromConfig(executor, mix);
+    }
+
+    public void print(PrintStream out, Step knee) {
+        out.printf("%nCapacity search (SLO p99 <= %.0fms, error rate <= %.2f%%):%n", sloP99Millis, sloErrorRate * 100);
+        out.printf("%4s %-7s %10s %10s %8s %8s %10s %10s %10s %s%n",
+                "Step", "Stage", "Target/s", "Actual/s", "Errors", "Missed", "p50(ms)", "p99(ms)", "max(ms)", "Verdict");
+        for (Step step : steps) {
+            out.printf(Locale.ROOT, "%4d %-7s %10.1f %10.1f %8d %8d %10.2f %10.2f %10.2f %s%n",
+                    step.number(), step.stage(), step.targetRate(), step.achievedRate(), step.errors(), step.missed(),
+                    step.p50Millis(), step.p99Millis(), step.maxMillis(), step.verdict());
+        }
+        if (knee == null) {
+            out.println("Knee: none, the start rate already violates the SLO");
+        } else if (heldUpToMaxRate()) {
+            out.printf(Locale.ROOT, "SLO held up to the max rate %.1f req/s (step %d, p99=%.2fms, error rate=%.3f%%),"
+                            + " no knee found; raise capacity.max.rate to search further%n",
+                    knee.targetRate(), knee.number(), knee.p99Millis(), knee.errorRate() * 100);
+        } else {
+            out.printf(Locale.ROOT, "Knee: %.1f req/s (step %d, p99=%.2fms, error rate=%.3f%%)%n",
+                    knee.targetRate(), knee.number(), knee.p99Millis(), knee.errorRate() * 100);
+        }
+    }
+
+    public void writeCsv(Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<String> lines = new ArrayList<>(steps.size() + 1);
+        lines.add(CSV_HEADER);
+        for (Step step : steps) {
+            lines.add(String.format(Locale.ROOT, "%d,%s,%.1f,%.1f,%d,%d,%d,%.5f,%.2f,%.2f,%.2f,%.2f,%s,%d",
+                    step.number(), step.stage(), step.targetRate(), step.achievedRate(), step.requests(), step.errors(),
+                    step.missed(), step.errorRate(), step.p50Millis(), step.p99Millis(), step.p999Millis(),
+                    step.maxMillis(), step.verdict(), step.closedSessions()));
+        }
+        Files.write(output, lines);
+    }
+
+    /**
+     * Результат одной выдержанной ступени; {@code closedSessions} — сессии, закрытые LOGOUT после нее.
+     */
+    public record Step(int number, String stage, double targetRate, double achievedRate, long requests, long errors,
+                       long missed, double errorRate, double p50Millis, double p99Millis, double p999Millis,
+                       double maxMillis, String verdict, long closedSessions) {
+
+        public boolean passed() {
+            return "pass".equals(verdict);
+        }
+
+        String format() {
+            return String.format(Locale.ROOT,
+                    "Step %d (%s): %.1f req/s -> %.1f req/s, p99=%.2fms, error rate=%.3f%%, %s, closed sessions=%d",
+                    number, stage, targetRate, achievedRate, p99Millis, errorRate * 100, verdict, closedSessions);
+        }
+    }
+}
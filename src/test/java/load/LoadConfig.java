@@ -0,0 +1,250 @@
+package load;
+
+import config.TestConfig;
+
+public class LoadConfig {
+    private static final int DEFAULT_USERS = 100;
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+    private static final int DEFAULT_RAMP_UP_SECONDS = 10;
+    private static final long DEFAULT_THINK_TIME_MILLIS = 0;
+    private static final int DEFAULT_REPORT_INTERVAL_SECONDS = 5;
+    private static final String DEFAULT_TRANSPORT = "httpclient";
+    private static final int DEFAULT_TOKEN_POOL_SIZE = 0;
+    private static final String DEFAULT_MOCK_BACKEND = "fast";
+    private static final String DEFAULT_SCENARIO = "fullflow";
+    private static final String DEFAULT_MODEL = "closed";
+    private static final double DEFAULT_RATE = 100;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+    private static final long DEFAULT_LATE_THRESHOLD_MILLIS = 10;
+    private static final int DEFAULT_OPEN_SESSIONS = 0;
+    private static final String DEFAULT_SESSION_STORE = "objects";
+    private static final String DEFAULT_COORDINATOR_HOST = "localhost";
+    private static final int DEFAULT_COORDINATOR_PORT = 7070;
+    private static final int DEFAULT_WORKERS = 2;
+    private static final int DEFAULT_WORKER_TOKENS = 200_000;
+    private static final int DEFAULT_WORKERS_CONNECT_TIMEOUT_SECONDS = 120;
+    private static final int DEFAULT_SOAK_DURATION_MINUTES = 60;
+    private static final int DEFAULT_SOAK_WINDOW_SECONDS = 60;
+    private static final int DEFAULT_SOAK_WARMUP_WINDOWS = 2;
+    private static final int DEFAULT_SOAK_BASELINE_WINDOWS = 3;
+    private static final double DEFAULT_SOAK_P99_DRIFT_RATIO = 1.5;
+    private static final double DEFAULT_SOAK_THROUGHPUT_DRIFT_RATIO = 0.8;
+    private static final double DEFAULT_SOAK_ERROR_RATE_DRIFT = 0.01;
+    private static final double DEFAULT_CAPACITY_START_RATE = 100;
+    private static final double DEFAULT_CAPACITY_MAX_RATE = 100_000;
+    private static final double DEFAULT_CAPACITY_STEP_FACTOR = 2;
+    private static final double DEFAULT_CAPACITY_PRECISION = 0.05;
+    private static final int DEFAULT_CAPACITY_HOLD_SECONDS = 30;
+    private static final int DEFAULT_CAPACITY_WARMUP_SECONDS = 10;
+    private static final long DEFAULT_CAPACITY_SLO_P99_MILLIS = 200;
+    private static final double DEFAULT_CAPACITY_SLO_ERROR_RATE = 0.01;
+    private static final String DEFAULT_MIX = "ACTION:70,LOGIN:10,LOGOUT:10,INVALID_TOKEN:5,NO_API_KEY:5";
+
+    public static int getUsers() {
+        return TestConfig.getIntProperty("load.users", DEFAULT_USERS);
+    }
+
+    public static int getDurationSeconds() {
+        return TestConfig.getIntProperty("load.duration.seconds", DEFAULT_DURATION_SECONDS);
+    }
+
+    public static int getRampUpSeconds() {
+        return TestConfig.getIntProperty("load.rampup.seconds", DEFAULT_RAMP_UP_SECONDS);
+    }
+
+    public static long getThinkTimeMillis() {
+        return TestConfig.getLongProperty("load.think.time.millis", DEFAULT_THINK_TIME_MILLIS);
+    }
+
+    public static int getReportIntervalSeconds() {
+        return TestConfig.getIntProperty("load.report.interval.seconds", DEFAULT_REPORT_INTERVAL_SECONDS);
+    }
+
+    public static String getTransport() {
+        return TestConfig.getProperty("load.transport", DEFAULT_TRANSPORT);
+    }
+
+    public static int getTokenPoolSize() {
+        return TestConfig.getIntProperty("load.token.pool.size", DEFAULT_TOKEN_POOL_SIZE);
+    }
+
+    public static String getMockBackend() {
+        return TestConfig.getProperty("load.mock.backend", DEFAULT_MOCK_BACKEND);
+    }
+
+    public static String getScenario() {
+        return TestConfig.getProperty("load.scenario", DEFAULT_SCENARIO);
+    }
+
+    public static String getMix() {
+        return TestConfig.getProperty("load.mix", DEFAULT_MIX);
+    }
+
+    public static String getMixFile() {
+        return TestConfig.getProperty("load.mix.file", "");
+    }
+
+    public static String getModel() {
+        return TestConfig.getProperty("load.model", DEFAULT_MODEL);
+    }
+
+    public static double getRate() {
+        return TestConfig.getDoubleProperty("load.rate", DEFAULT_RATE);
+    }
+
+    public static String getRateSteps() {
+        return TestConfig.getProperty("load.rate.steps", "");
+    }
+
+    public static int getMaxInFlight() {
+        return TestConfig.getIntProperty("load.open.max.inflight", DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Сколько сессий открытая модель держит открытыми на сервисе; 0 — столько, сколько запросов в полете.
+     */
+    public static int getOpenSessions() {
+        return TestConfig.getIntProperty("load.open.sessions", DEFAULT_OPEN_SESSIONS);
+    }
+
+    /**
+     * Хранилище сессий открытой модели: {@code objects} (очередь без блокировок) или {@code compact}
+     * (упакованные токены в примитивных массивах) для миллионов сессий при умеренной интенсивности.
+     */
+    public static String getSessionStore() {
+        return TestConfig.getProperty("load.session.store", DEFAULT_SESSION_STORE);
+    }
+
+    public static long getLateThresholdMillis() {
+        return TestConfig.getLongProperty("load.open.late.threshold.millis", DEFAULT_LATE_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * Каталог бинарного журнала результатов; пустая строка — журнал не ведется.
+     */
+    public static String getResultsDir() {
+        return TestConfig.getProperty("load.results.dir", "");
+    }
+
+    public static String getCoordinatorHost() {
+        return TestConfig.getProperty("load.coordinator.host", DEFAULT_COORDINATOR_HOST);
+    }
+
+    public static int getCoordinatorPort() {
+        return TestConfig.getIntProperty("load.coordinator.port", DEFAULT_COORDINATOR_PORT);
+    }
+
+    public static int getWorkers() {
+        return TestConfig.getIntProperty("load.workers", DEFAULT_WORKERS);
+    }
+
+    /**
+     * Размер диапазона номеров токенов на воркера; диапазоны воркеров не пересекаются.
+     */
+    public static int getWorkerTokens() {
+        return TestConfig.getIntProperty("load.worker.tokens", DEFAULT_WORKER_TOKENS);
+    }
+
+    public static int getWorkersConnectTimeoutSeconds() {
+        return TestConfig.getIntProperty("load.workers.connect.timeout.seconds", DEFAULT_WORKERS_CONNECT_TIMEOUT_SECONDS);
+    }
+
+    public static int getSoakDurationMinutes() {
+        return TestConfig.getIntProperty("soak.duration.minutes", DEFAULT_SOAK_DURATION_MINUTES);
+    }
+
+    public static int getSoakWindowSeconds() {
+        return TestConfig.getIntProperty("soak.window.seconds", DEFAULT_SOAK_WINDOW_SECONDS);
+    }
+
+    /**
+     * Окна прогрева, не входящие в базовую линию.
+     */
+    public static int getSoakWarmupWindows() {
+        return TestConfig.getIntProperty("soak.warmup.windows", DEFAULT_SOAK_WARMUP_WINDOWS);
+    }
+
+    /**
+     * Окна после прогрева, из которых складывается базовая линия.
+     */
+    public static int getSoakBaselineWindows() {
+        return TestConfig.getIntProperty("soak.baseline.windows", DEFAULT_SOAK_BASELINE_WINDOWS);
+    }
+
+    /**
+     * Рост p99 относительно базовой линии, после которого окно помечается как дрейф.
+     */
+    public static double getSoakP99DriftRatio() {
+        return TestConfig.getDoubleProperty("soak.drift.p99.ratio", DEFAULT_SOAK_P99_DRIFT_RATIO);
+    }
+
+    /**
+     * Доля базовой пропускной способности, ниже которой окно помечается как дрейф.
+     */
+    public static double getSoakThroughputDriftRatio() {
+        return TestConfig.getDoubleProperty("soak.drift.throughput.ratio", DEFAULT_SOAK_THROUGHPUT_DRIFT_RATIO);
+    }
+
+    /**
+     * Абсолютный рост доли ошибок относительно базовой линии, после которого окно помечается как дрейф.
+     */
+    public static double getSoakErrorRateDrift() {
+        return TestConfig.getDoubleProperty("soak.drift.error.rate", DEFAULT_SOAK_ERROR_RATE_DRIFT);
+    }
+
+    public static String getSoakOutput() {
+        return TestConfig.getProperty("soak.output", "target/soak/soak.csv");
+    }
+
+    public static double getCapacityStartRate() {
+        return TestConfig.getDoubleProperty("capacity.start.rate", DEFAULT_CAPACITY_START_RATE);
+    }
+
+    public static double getCapacityMaxRate() {
+        return TestConfig.getDoubleProperty("capacity.max.rate", DEFAULT_CAPACITY_MAX_RATE);
+    }
+
+    /**
+     * Множитель интенсивности между ступенями до первого нарушения SLO.
+     */
+    public static double getCapacityStepFactor() {
+        return TestConfig.getDoubleProperty("capacity.step.factor", DEFAULT_CAPACITY_STEP_FACTOR);
+    }
+
+    /**
+     * Относительная ширина интервала, на которой бинарный поиск останавливается.
+     */
+    public static double getCapacityPrecision() {
+        return TestConfig.getDoubleProperty("capacity.precision", DEFAULT_CAPACITY_PRECISION);
+    }
+
+    public static int getCapacityHoldSeconds() {
+        return TestConfig.getIntProperty("capacity.hold.seconds", DEFAULT_CAPACITY_HOLD_SECONDS);
+    }
+
+    public static int getCapacityWarmupSeconds() {
+        return TestConfig.getIntProperty("capacity.warmup.seconds", DEFAULT_CAPACITY_WARMUP_SECONDS);
+    }
+
+    public static long getCapacitySloP99Millis() {
+        return TestConfig.getLongProperty("capacity.slo.p99.millis", DEFAULT_CAPACITY_SLO_P99_MILLIS);
+    }
+
+    /**
+     * Допустимая доля ошибок и пропущенных отправок.
+     */
+    public static double getCapacitySloErrorRate() {
+        return TestConfig.getDoubleProperty("capacity.slo.error.rate", DEFAULT_CAPACITY_SLO_ERROR_RATE);
+    }
+
+    /**
+     * Минимальная допустимая найденная интенсивность; 0 — не проверять.
+     */
+    public static double getCapacityRequiredRate() {
+        return TestConfig.getDoubleProperty("capacity.required.rate", 0);
+    }
+
+    public static String getCapacityOutput() {
+        return TestConfig.getProperty("capacity.output", "target/capacity/capacity.csv");
+    }
+}
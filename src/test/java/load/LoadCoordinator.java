@@ -0,0 +1,187 @@
+package load;
+
+import metrics.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Координатор распределенного прогона: ждет {@code load.workers} воркеров, делит между ними пользователей
+ * (закрытая модель) или интенсивность (открытая модель), выдает непересекающиеся диапазоны номеров токенов
+ * по {@code load.worker.tokens} и печатает сводную статистику по присланным гистограммам.
+ * <p>
+ * Запуск: {@code mvn -Pcoordinator -Dload.workers=4 -Dload.model=open -Dload.rate=20000}
+ */
+public class LoadCoordinator {
+    private static final Logger logger = Logger.getLogger(LoadCoordinator.class.getName());
+
+    private final List<WorkerConnection> workers;
+    private final CountDownLatch finished;
+
+    private LoadCoordinator(List<WorkerConnection> workers) {
+        this.workers = workers;
+        this.finished = new CountDownLatch(workers.size());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int workerCount = LoadConfig.getWorkers();
+        int port = LoadConfig.getCoordinatorPort();
+        WorkloadMix mix = "mix".equals(LoadConfig.getScenario()) ? LoadRunner.loadMix() : null;
+
+        List<WorkerConnection> workers = new ArrayList<>(workerCount);
+        try (ServerSocket server = new ServerSocket(port)) {
+            server.setSoTimeout((int) TimeUnit.SECONDS.toMillis(LoadConfig.getWorkersConnectTimeoutSeconds()));
+            logger.info(String.format("Waiting for %d workers on port %d", workerCount, port));
+            while (workers.size() < workerCount) {
+                WorkerConnection worker = new WorkerConnection(server.accept());
+                workers.add(worker);
+                logger.info(String.format("Worker %d/%d connected: %s", workers.size(), workerCount, worker.id));
+            }
+        } catch (IOException e) {
+            workers.forEach(WorkerConnection::close);
+            throw e;
+        }
+
+        LoadRunner.startMock(LoadConfig.getMockBackend());
+        try {
+            new LoadCoordinator(workers).run(mix);
+        } finally {
+            LoadRunner.stopMock();
+            workers.forEach(WorkerConnection::close);
+        }
+    }
+
+    private void run(WorkloadMix mix) throws IOException, InterruptedException {
+        for (int i = 0; i < workers.size(); i++) {
+            workers.get(i).send(assignment(i, workers.size(), mix));
+        }
+        for (WorkerConnection worker : workers) {
+            Thread.ofVirtual().name("worker-reader-" + worker.id).start(() -> readReports(worker));
+        }
+
+        long start = System.nanoTime();
+        long intervalMillis = TimeUnit.SECONDS.toMillis(LoadConfig.getReportIntervalSeconds());
+        long previousRequests = 0;
+        long previousTime = start;
+        while (!finished.await(intervalMillis, TimeUnit.MILLISECONDS)) {
+            long now = System.nanoTime();
+            LatencyHistogram total = new LatencyHistogram();
+            long errors = 0;
+            for (ActionStats action : merge()) {
+                total.add(action.getHistogram());
+                errors += action.getErrors();
+            }
+            long requests = total.getTotalCount();
+            System.out.printf("[%5ds] active workers=%d/%d requests=%d (%.1f req/s) errors=%d p50=%.2fms p99=%.2fms%n",
+                    TimeUnit.NANOSECONDS.toSeconds(now - start), finished.getCount(), workers.size(), requests,
+                    (requests - previousRequests) * 1e9 / (now - previousTime), errors,
+                    total.getValueAtPercentile(50) / 1e3, total.getValueAtPercentile(99) / 1e3);
+            previousRequests = requests;
+            previousTime = now;
+        }
+
+        double elapsedSeconds = 0;
+        for (WorkerConnection worker : workers) {
+            if (worker.latest != null) {
+                elapsedSeconds = Math.max(elapsedSeconds, worker.latest.elapsedSeconds());
+            }
+        }
+        System.out.printf("Merged results from %d workers:%n", workers.size());
+        LoadReport.print(System.out, merge(), elapsedSeconds);
+    }
+
+    static WorkerProtocol.Assignment assignment(int index, int workerCount, WorkloadMix mix) {
+        int users = LoadConfig.getUsers();
+        int durationSeconds = LoadConfig.getDurationSeconds();
+        String steps = LoadConfig.getRateSteps();
+        List<RatePhase> phases = new ArrayList<>();
+        for (RatePhase phase : steps.isEmpty()
+                ? List.of(new RatePhase(LoadConfig.getRate(), durationSeconds))
+                : RatePhase.parseSteps(steps)) {
+            phases.add(new RatePhase(phase.rate() / workerCount, phase.durationSeconds()));
+        }
+        int tokenCount = LoadConfig.getWorkerTokens();
+        return new WorkerProtocol.Assignment(index, mix == null ? "" : mix.toString(), LoadConfig.getModel(),
+                users / workerCount + (index < users % workerCount ? 1 : 0), durationSeconds,
+                LoadConfig.getRampUpSeconds(), LoadConfig.getThinkTimeMillis(), phases,
+                (long) index * tokenCount, tokenCount, LoadConfig.getReportIntervalSeconds());
+    }
+
+    private void readReports(WorkerConnection worker) {
+        try {
+            while (true) {
+                WorkerProtocol.Report report = WorkerProtocol.Report.read(worker.in);
+                worker.latest = report;
+                if (report.last()) {
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            logger.warning("Worker " + worker.id + " disconnected before the final report");
+        } catch (IOException e) {
+            logger.warning("Lost worker " + worker.id + ": " + e.getMessage());
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private Collection<ActionStats> merge() {
+        Map<String, ActionStats> merged = new LinkedHashMap<>();
+        for (WorkerConnection worker : workers) {
+            WorkerProtocol.Report report = worker.latest;
+            if (report == null) {
+                continue;
+            }
+            for (WorkerProtocol.ActionSnapshot action : report.actions()) {
+                merged.computeIfAbsent(action.name(), ActionStats::new).merge(action.histogram(), action.errors());
+            }
+        }
+        return merged.values();
+    }
+
+    private static final class WorkerConnection implements Closeable {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final String id;
+        private volatile WorkerProtocol.Report latest;
+
+        private WorkerConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(0);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.id = WorkerProtocol.readHello(in);
+        }
+
+        private void send(WorkerProtocol.Assignment assignment) throws IOException {
+            assignment.write(out);
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.warning("Could not close connection to " + id + ": " + e.getMessage());
+            }
+        }
+    }
+}
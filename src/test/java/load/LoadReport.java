@@ -0,0 +1,54 @@
+package load;
+
+import clients.Target;
+import metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Collection;
+
+public class LoadReport {
+    private static final String HEADER_FORMAT = "%-14s %10s %8s %12s %10s %10s %10s %10s %10s%n";
+    private static final String ROW_FORMAT = "%-14s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n";
+    private static final String TARGET_HEADER_FORMAT = "%-30s %10s %8s %12s %10s %10s %10s %10s %10s%n";
+    private static final String TARGET_ROW_FORMAT = "%-30s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n";
+
+    public static void print(PrintStream out, Collection<ActionStats> stats, double elapsedSeconds) {
+        out.printf(HEADER_FORMAT, "Action", "Requests", "Errors", "Req/s",
+                "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        LatencyHistogram total = new LatencyHistogram();
+        long totalErrors = 0;
+        for (ActionStats action : stats) {
+            printRow(out, ROW_FORMAT, action.getName(), action.getHistogram(), action.getErrors(), elapsedSeconds);
+            total.add(action.getHistogram());
+            totalErrors += action.getErrors();
+        }
+        printRow(out, ROW_FORMAT, "TOTAL", total, totalErrors, elapsedSeconds);
+    }
+
+    /**
+     * Задержки и ошибки (5xx и сбои транспорта) по экземплярам сервиса.
+     */
+    public static void printTargets(PrintStream out, Collection<Target> targets, double elapsedSeconds) {
+        out.printf(TARGET_HEADER_FORMAT, "Target", "Requests", "Errors", "Req/s",
+                "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Target target : targets) {
+            printRow(out, TARGET_ROW_FORMAT, target.getBaseUrl(), target.getHistogram(), target.getErrors(), elapsedSeconds);
+        }
+    }
+
+    private static void printRow(PrintStream out, String format, String name, LatencyHistogram histogram,
+                                 long errors, double elapsedSeconds) {
+        long requests = histogram.getTotalCount();
+        out.printf(format, name, requests, errors,
+                elapsedSeconds > 0 ? requests / elapsedSeconds : 0,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxMicros()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,330 @@
+package load;
+
+import clients.ApplicationTransport;
+import clients.TargetSelector;
+import config.TestConfig;
+import helpers.TokenHelper;
+import helpers.TokenPool;
+import metrics.RequestMetrics;
+import mock.CallCounters;
+import mock.MockEndpoint;
+import mock.MockService;
+import results.PerfRun;
+import results.ResultLogWriter;
+import simulator.ServiceSimulator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Нагрузочный режим: N виртуальных пользователей (по одному виртуальному потоку на каждого)
+ * в цикле выполняют LOGIN → ACTION → LOGOUT со своим токеном ({@code load.scenario=fullflow})
+ * или взвешенную смесь шаблонов запросов ({@code load.scenario=mix}).
+ * <p>
+ * Запуск: {@code mvn -Pload -Dload.users=5000 -Dload.duration.seconds=300}
+ */
+public class LoadRunner {
+    private static final Logger logger = Logger.getLogger(LoadRunner.class.getName());
+    private static final RequestTemplate[] FULL_FLOW = {RequestTemplate.LOGIN, RequestTemplate.ACTION, RequestTemplate.LOGOUT};
+
+    private final RequestExecutor executor;
+    private final WorkloadMix mix;
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final long thinkTimeMillis;
+
+    public LoadRunner(RequestExecutor executor, WorkloadMix mix, long thinkTimeMillis) {
+        this.executor = executor;
+        this.mix = mix;
+        this.thinkTimeMillis = thinkTimeMillis;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int users = LoadConfig.getUsers();
+        int durationSeconds = LoadConfig.getDurationSeconds();
+        int rampUpSeconds = LoadConfig.getRampUpSeconds();
+        long thinkTimeMillis = LoadConfig.getThinkTimeMillis();
+        String transport = LoadConfig.getTransport();
+        WorkloadMix mix = "mix".equals(LoadConfig.getScenario()) ? loadMix() : null;
+
+        logger.info(String.format("Starting load: users=%d, duration=%ds, ramp-up=%ds, think time=%dms, transport=%s, scenario=%s",
+                users, durationSeconds, rampUpSeconds, thinkTimeMillis, transport, mix == null ? "fullflow" : mix));
+
+        ResultLogWriter resultLog = openResultLog();
+        try {
+            RequestExecutor executor = new RequestExecutor(ApplicationTransport.forName(transport), tokenSource(), resultLog);
+            if ("open".equals(LoadConfig.getModel())) {
+                runOpenModel(executor, mix, durationSeconds);
+            } else {
+                runClosedModel(executor, mix, users, durationSeconds, rampUpSeconds, thinkTimeMillis);
+            }
+        } finally {
+            if (resultLog != null) {
+                resultLog.close();
+            }
+        }
+        RequestMetrics.export();
+        PerfRun.write("load");
+    }
+
+    static void runClosedModel(RequestExecutor executor, WorkloadMix mix, int users, int durationSeconds,
+                               int rampUpSeconds, long thinkTimeMillis) throws InterruptedException {
+        LoadRunner runner = new LoadRunner(executor, mix, thinkTimeMillis);
+        startMock(LoadConfig.getMockBackend());
+        try {
+            double elapsedSeconds = runner.run(users, durationSeconds, rampUpSeconds);
+            LoadReport.print(System.out, runner.reportedStats(), elapsedSeconds);
+            recordPerfRun(runner.reportedStats(), elapsedSeconds);
+            System.out.printf("Invalid response bodies: %d%n", executor.getInvalidBodies());
+            printMockCalls(runner.reportedStats());
+            printTargets(elapsedSeconds);
+            if (mix != null) {
+                System.out.printf("Abandoned sessions: %d%n", executor.getAbandonedSessions());
+            }
+        } finally {
+            stopMock();
+        }
+    }
+
+    static void runOpenModel(RequestExecutor executor, WorkloadMix mix, int durationSeconds) {
+        String steps = LoadConfig.getRateSteps();
+        List<RatePhase> phases = steps.isEmpty()
+                ? List.of(new RatePhase(LoadConfig.getRate(), durationSeconds))
+                : RatePhase.parseSteps(steps);
+        logger.info("Open model phases: " + phases);
+
+        OpenModelRunner runner = OpenModelRunner.fromConfig(executor, mix);
+        RequestTemplate[] templates = reportedTemplates(mix);
+        startMock(LoadConfig.getMockBackend());
+        try {
+            double elapsedSeconds = runner.run(phases);
+            System.out.println("Latency from intended send time (corrected for coordinated omission):");
+            LoadReport.print(System.out, executor.getStats(templates), elapsedSeconds);
+            recordPerfRun(executor.getStats(templates), elapsedSeconds);
+            System.out.println("Service time (from actual send time):");
+            LoadReport.print(System.out, executor.getServiceStats(templates), elapsedSeconds);
+            System.out.printf("Scheduled: %d, missed: %d, late: %d, unregistered sessions: %d, invalid response bodies: %d%n",
+                    runner.getScheduled(), runner.getMissed(), runner.getLate(), runner.getUnregistered(),
+                    executor.getInvalidBodies());
+            printMockCalls(executor.getStats(templates));
+            printTargets(elapsedSeconds);
+        } finally {
+            stopMock();
+        }
+    }
+
+    static void recordPerfRun(List<ActionStats> stats, double elapsedSeconds) {
+        for (ActionStats action : stats) {
+            PerfRun.record(action.getName(), action.getHistogram(), action.getErrors(), elapsedSeconds);
+        }
+    }
+
+    /**
+     * Вызовы внешнего сервиса в пересчете на запрос к /endpoint. Разбивку по действиям дает
+     * только учет по токенам в тестах ({@code steps.CallAccounting}): общий счетчик на число запросов
+     * отдельного действия не делится.
+     */
+    static void printMockCalls(List<ActionStats> stats) {
+        CallCounters counters = MockService.getCallCounters();
+        if (counters == null) {
+            return;
+        }
+        long requests = stats.stream().mapToLong(ActionStats::getRequests).sum();
+        for (MockEndpoint endpoint : MockEndpoint.values()) {
+            long calls = counters.getCalls(endpoint);
+            System.out.printf(Locale.ROOT, "Mock %s calls: %d (%.2f per /endpoint request)%n",
+                    endpoint.getPath(), calls, perRequest(calls, requests));
+        }
+    }
+
+    private static double perRequest(long calls, long requests) {
+        return requests == 0 ? 0 : (double) calls / requests;
+    }
+
+    static void printTargets(double elapsedSeconds) {
+        TargetSelector targetSelector = TargetSelector.getDefault();
+        if (targetSelector.getTargets().size() > 1) {
+            System.out.println("Per-target breakdown (" + targetSelector.getPolicy() + "):");
+            LoadReport.printTargets(System.out, targetSelector.getTargets(), elapsedSeconds);
+        }
+    }
+
+    static ResultLogWriter openResultLog() throws IOException {
+        String resultsDir = LoadConfig.getResultsDir();
+        if (resultsDir.isEmpty()) {
+            return null;
+        }
+        logger.info("Writing per-request results to " + resultsDir);
+        return new ResultLogWriter(Path.of(resultsDir));
+    }
+
+    static WorkloadMix loadMix() throws IOException {
+        String mixFile = LoadConfig.getMixFile();
+        return mixFile.isEmpty() ? WorkloadMix.parse(LoadConfig.getMix()) : WorkloadMix.load(Path.of(mixFile));
+    }
+
+    static Supplier<String> tokenSource() {
+        int tokenPoolSize = LoadConfig.getTokenPoolSize();
+        if (tokenPoolSize <= 0) {
+            return TokenHelper::generateValidToken;
+        }
+        return tokenSource(TokenPool.valid(tokenPoolSize));
+    }
+
+    static Supplier<String> tokenSource(TokenPool tokenPool) {
+        return () -> {
+            try {
+                return tokenPool.next();
+            } catch (IllegalStateException e) {
+                logger.warning(e.getMessage());
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Поднимает мок {@code backend} ({@code none} — мок поднят отдельно) и симулятор, если он включен.
+     */
+    public static void startMock(String backend) {
+        if (!"none".equals(backend)) {
+            MockService.start(backend);
+            MockService.stubAuthEndpoint(200);
+            MockService.stubDoActionEndpoint(200);
+            MockService.applyConfiguredProfiles();
+        }
+        if (TestConfig.isSimulatorEnabled()) {
+            ServiceSimulator.start();
+        }
+    }
+
+    public static void stopMock() {
+        ServiceSimulator.stop();
+        MockService.stop();
+    }
+
+    public double run(int users, int durationSeconds, int rampUpSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(rampUpSeconds);
+
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                long startAt = start + rampUpNanos * i / users;
+                virtualUsers.submit(() -> runUser(startAt, deadline));
+            }
+            reportProgress(start, deadline);
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    List<ActionStats> reportedStats() {
+        return executor.getStats(reportedTemplates(mix));
+    }
+
+    static RequestTemplate[] reportedTemplates(WorkloadMix mix) {
+        if (mix == null) {
+            return FULL_FLOW.clone();
+        }
+        Set<RequestTemplate> templates = EnumSet.of(RequestTemplate.LOGIN, mix.getTemplates());
+        return templates.toArray(new RequestTemplate[0]);
+    }
+
+    private void runUser(long startAt, long deadline) {
+        if (!sleepUntil(startAt)) {
+            return;
+        }
+        VirtualSession session = executor.newSession();
+        if (session == null) {
+            return;
+        }
+        activeUsers.incrementAndGet();
+        try {
+            while (System.nanoTime() < deadline) {
+                boolean proceed = mix == null ? runFullFlow(session) : runMixStep(session);
+                if (!proceed) {
+                    return;
+                }
+            }
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    private boolean runFullFlow(VirtualSession session) {
+        for (RequestTemplate template : FULL_FLOW) {
+            if (!executor.execute(template, session)) {
+                break;
+            }
+            if (!think()) {
+                return false;
+            }
+        }
+        return executor.renew(session);
+    }
+
+    private boolean runMixStep(VirtualSession session) {
+        RequestTemplate template = mix.next();
+        if (!executor.execute(template, session) && template == RequestTemplate.ABANDON) {
+            return false;
+        }
+        return think();
+    }
+
+    private boolean think() {
+        if (thinkTimeMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(thinkTimeMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reportProgress(long start, long deadline) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(LoadConfig.getReportIntervalSeconds());
+        long previousRequests = 0;
+        long previousTime = start;
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(intervalNanos, deadline - now));
+            now = System.nanoTime();
+            long requests = 0;
+            long errors = 0;
+            for (ActionStats action : executor.getStats(RequestTemplate.values())) {
+                requests += action.getRequests();
+                errors += action.getErrors();
+            }
+            System.out.printf("[%5ds] users=%d requests=%d (%.1f req/s) errors=%d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(now - start), activeUsers.get(), requests,
+                    (requests - previousRequests) * 1e9 / (now - previousTime), errors);
+            previousRequests = requests;
+            previousTime = now;
+        }
+    }
+
+    private static boolean sleepUntil(long nanoTime) {
+        long delay = nanoTime - System.nanoTime();
+        if (delay <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package load;
+
+import clients.ApplicationTransport;
+import helpers.TokenPool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Воркер распределенного прогона: получает от {@link LoadCoordinator} сценарий, свою долю нагрузки
+ * и диапазон токенов, выполняет запросы и периодически отправляет накопленные гистограммы.
+ * <p>
+ * Запуск: {@code mvn -Pworker -Dload.coordinator.host=10.0.0.1}
+ */
+public class LoadWorker {
+    private static final Logger logger = Logger.getLogger(LoadWorker.class.getName());
+    private static final long CONNECT_RETRY_MILLIS = 500;
+
+    private final DataOutputStream out;
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final RequestExecutor executor;
+    private final RequestTemplate[] templates;
+    private final long startNanos = System.nanoTime();
+
+    private LoadWorker(DataOutputStream out, RequestExecutor executor, RequestTemplate[] templates) {
+        this.out = out;
+        this.executor = executor;
+        this.templates = templates;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String workerId = InetAddress.getLocalHost().getHostName() + ":" + ProcessHandle.current().pid();
+        try (Socket socket = connect(LoadConfig.getCoordinatorHost(), LoadConfig.getCoordinatorPort(),
+                TimeUnit.SECONDS.toMillis(LoadConfig.getWorkersConnectTimeoutSeconds()))) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            WorkerProtocol.writeHello(out, workerId);
+            out.flush();
+
+            WorkerProtocol.Assignment assignment = WorkerProtocol.Assignment.read(in);
+            logger.info("Worker " + workerId + " received " + assignment);
+            WorkloadMix mix = assignment.mix().isEmpty() ? null : WorkloadMix.parse(assignment.mix());
+            TokenPool tokenPool = TokenPool.valid(assignment.firstTokenIndex(), assignment.tokenCount());
+            RequestExecutor executor = new RequestExecutor(ApplicationTransport.forName(LoadConfig.getTransport()),
+                    LoadRunner.tokenSource(tokenPool));
+
+            new LoadWorker(out, executor, LoadRunner.reportedTemplates(mix)).run(assignment, mix);
+        }
+    }
+
+    private void run(WorkerProtocol.Assignment assignment, WorkloadMix mix) throws IOException, InterruptedException {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(this::sendProgress, assignment.reportIntervalSeconds(),
+                assignment.reportIntervalSeconds(), TimeUnit.SECONDS);
+        try {
+            if ("open".equals(assignment.model())) {
+                OpenModelRunner.fromConfig(executor, mix).run(assignment.phases());
+            } else {
+                new LoadRunner(executor, mix, assignment.thinkTimeMillis())
+                        .run(assignment.users(), assignment.durationSeconds(), assignment.rampUpSeconds());
+            }
+        } finally {
+            reporter.shutdownNow();
+            reporter.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        send(true);
+    }
+
+    private void sendProgress() {
+        try {
+            send(false);
+        } catch (IOException e) {
+            logger.warning("Could not send progress to coordinator: " + e.getMessage());
+        }
+    }
+
+    private void send(boolean last) throws IOException {
+        List<WorkerProtocol.ActionSnapshot> actions = new ArrayList<>(templates.length);
+        for (ActionStats stats : executor.getStats(templates)) {
+            actions.add(new WorkerProtocol.ActionSnapshot(stats.getName(), stats.getErrors(), stats.getHistogram()));
+        }
+        WorkerProtocol.Report report = new WorkerProtocol.Report(last, (System.nanoTime() - startNanos) / 1e9, actions);
+        sendLock.lock();
+        try {
+            report.write(out);
+            out.flush();
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private static Socket connect(String host, int port, long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), (int) Math.max(1, timeoutMillis));
+                return socket;
+            } catch (ConnectException e) {
+                socket.close();
+                if (System.currentTimeMillis() >= deadline) {
+                    throw e;
+                }
+                Thread.sleep(CONNECT_RETRY_MILLIS);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package load;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Открытая модель нагрузки: запросы отправляются с заданной интенсивностью независимо от времени ответа.
+ * Задержка отсчитывается от запланированного момента отправки, поэтому остановка сервиса видна в перцентилях.
+ * <p>
+ * Если число запросов в полете достигло {@code load.open.max.inflight}, запланированная отправка пропускается
+ * и считается как missed; отправка с опозданием больше {@code load.open.late.threshold.millis} считается как late.
+ * <p>
+ * Запрос берет самую давно простаивающую сессию; пока сессий меньше {@code load.open.sessions}, создается новая,
+ * так что на сервисе одновременно открыто до {@code load.open.sessions} сессий. При {@code load.session.store=compact}
+ * сессии хранятся в {@link SessionRegistry}, иначе объектами {@link VirtualSession}. Сессия, не поместившаяся
+ * в реестр, считается как unregistered: запрос не отправлен, но лимит в полете тут ни при чем.
+ */
+public class OpenModelRunner {
+    private static final Logger logger = Logger.getLogger(OpenModelRunner.class.getName());
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final RequestTemplate[] FULL_FLOW = {RequestTemplate.LOGIN, RequestTemplate.ACTION, RequestTemplate.LOGOUT};
+
+    private final RequestExecutor executor;
+    private final WorkloadMix mix;
+    private final int maxInFlight;
+    private final long lateThresholdNanos;
+    private final int sessionLimit;
+    private final SessionRegistry registry;
+    private final Queue<VirtualSession> idleSessions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAdder unregistered = new LongAdder();
+
+    public OpenModelRunner(RequestExecutor executor, WorkloadMix mix, int maxInFlight, long lateThresholdMillis) {
+        this(executor, mix, maxInFlight, lateThresholdMillis, 0, null);
+    }
+
+    /**
+     * @param sessionLimit сколько сессий держать открытыми; 0 — новые сессии создаются, только если все заняты
+     * @param registry     компактное хранилище сессий; null — хранить объектами
+     */
+    OpenModelRunner(RequestExecutor executor, WorkloadMix mix, int maxInFlight, long lateThresholdMillis,
+                    int sessionLimit, SessionRegistry registry) {
+        this.executor = executor;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.lateThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lateThresholdMillis);
+        this.sessionLimit = sessionLimit;
+        this.registry = registry;
+    }
+
+    /**
+     * Открытая модель с параметрами {@code load.open.*} и хранилищем сессий {@code load.session.store}.
+     */
+    public static OpenModelRunner fromConfig(RequestExecutor executor, WorkloadMix mix) {
+        int maxInFlight = LoadConfig.getMaxInFlight();
+        int sessionLimit = LoadConfig.getOpenSessions();
+        SessionRegistry registry = null;
+        if ("compact".equals(LoadConfig.getSessionStore())) {
+            TokenCodec codec = TokenCodec.forValidTokens();
+            if (codec == null) {
+                logger.warning("Tokens do not fit the compact session store, keeping sessions as objects");
+            } else {
+                registry = new SessionRegistry(codec, sessionLimit + maxInFlight);
+                logger.info(String.format("Compact session store: %.1f MB for %d sessions",
+                        registry.sizeInBytes() / (1024.0 * 1024.0), sessionLimit + maxInFlight));
+            }
+        }
+        return new OpenModelRunner(executor, mix, maxInFlight, LoadConfig.getLateThresholdMillis(), sessionLimit, registry);
+    }
+
+    public double run(List<RatePhase> phases) {
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            long phaseStart = start;
+            for (RatePhase phase : phases) {
+                runPhase(requests, phase, phaseStart);
+                phaseStart += TimeUnit.SECONDS.toNanos(phase.durationSeconds());
+                System.out.printf("[%5ds] phase %.1f req/s done: scheduled=%d missed=%d late=%d unregistered=%d"
+                                + " in-flight=%d sessions=%d%n",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), phase.rate(),
+                        scheduled.sum(), missed.sum(), late.sum(), unregistered.sum(), inFlight.get(), sessions.get());
+            }
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    public long getScheduled() {
+        return scheduled.sum();
+    }
+
+    public long getMissed() {
+        return missed.sum();
+    }
+
+    public long getLate() {
+        return late.sum();
+    }
+
+    public long getUnregistered() {
+        return unregistered.sum();
+    }
+
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    private void runPhase(ExecutorService requests, RatePhase phase, long phaseStart) {
+        long phaseEnd = phaseStart + TimeUnit.SECONDS.toNanos(phase.durationSeconds());
+        double periodNanos = 1e9 / phase.rate();
+        for (long n = 0; ; n++) {
+            long intendedStart = phaseStart + (long) (n * periodNanos);
+            if (intendedStart >= phaseEnd) {
+                return;
+            }
+            awaitNanoTime(intendedStart);
+            scheduled.increment();
+            if (inFlight.get() >= maxInFlight) {
+                missed.increment();
+                continue;
+            }
+            if (System.nanoTime() - intendedStart > lateThresholdNanos) {
+                late.increment();
+            }
+            inFlight.incrementAndGet();
+            requests.execute(() -> send(intendedStart));
+        }
+    }
+
+    private void send(long intendedStart) {
+        try {
+            if (registry == null) {
+                sendWithObjectSession(intendedStart);
+            } else {
+                sendWithRegisteredSession(intendedStart);
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void sendWithObjectSession(long intendedStart) {
+        VirtualSession session = needsNewSession() ? null : idleSessions.poll();
+        if (session == null) {
+            session = executor.newSession();
+            if (session == null) {
+                return;
+            }
+            sessions.incrementAndGet();
+        }
+        if (executeNext(session, intendedStart)) {
+            idleSessions.offer(session);
+        } else {
+            sessions.decrementAndGet();
+        }
+    }
+
+    private void sendWithRegisteredSession(long intendedStart) {
+        VirtualSession session = needsNewSession() ? null : registry.takeIdle();
+        if (session == null) {
+            session = executor.newSession();
+            if (session == null) {
+                return;
+            }
+            if (!registry.register(session)) {
+                unregistered.increment();
+                return;
+            }
+            sessions.incrementAndGet();
+        }
+        String token = session.getToken();
+        boolean keep = executeNext(session, intendedStart);
+        if (!keep) {
+            registry.remove(token);
+        }
+        if (!keep || !registry.release(session, token)) {
+            sessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Закрывает LOGOUT все залогиненные свободные сессии после {@link #run}, чтобы следующий прогон
+     * не шел на фоне открытых сессий предыдущего. Статистика LOGOUT попадает в исполнитель.
+     *
+     * @return сколько сессий закрыто; неудачные LOGOUT не считаются
+     */
+    public long closeSessions() {
+        LongAdder closed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        try (ExecutorService logouts = Executors.newVirtualThreadPerTaskExecutor()) {
+            VirtualSession session;
+            while ((session = takeIdleForClose()) != null) {
+                if (!session.isLoggedIn()) {
+                    continue;
+                }
+                VirtualSession loggedIn = session;
+                logouts.execute(() -> {
+                    if (executor.execute(RequestTemplate.LOGOUT, loggedIn)) {
+                        closed.increment();
+                    } else {
+                        failed.increment();
+                    }
+                });
+            }
+        }
+        if (failed.sum() > 0) {
+            logger.warning("Failed to log out " + failed.sum() + " sessions");
+        }
+        return closed.sum();
+    }
+
+    private VirtualSession takeIdleForClose() {
+        VirtualSession session = registry == null ? idleSessions.poll() : registry.takeIdle();
+        if (session != null) {
+            if (registry != null) {
+                registry.remove(session.getToken());
+            }
+            sessions.decrementAndGet();
+        }
+        return session;
+    }
+
+    private boolean needsNewSession() {
+        return sessions.get() < sessionLimit;
+    }
+
+    /**
+     * Выполняет очередной запрос сессии.
+     *
+     * @return false, если сессия выбыла: токены закончились
+     */
+    private boolean executeNext(VirtualSession session, long intendedStart) {
+        if (mix != null) {
+            executor.execute(mix.next(), session, intendedStart);
+            return true;
+        }
+        // Состояние сессии совпадает с номером следующего шага полного цикла
+        RequestTemplate template = FULL_FLOW[session.getState()];
+        boolean success = executor.execute(template, session, intendedStart);
+        return (success && template != RequestTemplate.LOGOUT) || executor.renew(session);
+    }
+
+    private static void awaitNanoTime(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
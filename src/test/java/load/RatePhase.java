@@ -0,0 +1,35 @@
+package load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Участок профиля открытой модели: постоянная интенсивность {@code rate} запросов в секунду
+ * в течение {@code durationSeconds}.
+ */
+public record RatePhase(double rate, int durationSeconds) {
+
+    public RatePhase {
+        if (rate <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Rate and duration must be positive: " + rate + ":" + durationSeconds);
+        }
+    }
+
+    /**
+     * Разбирает ступенчатый профиль вида {@code 500:30,1000:30}.
+     */
+    public static List<RatePhase> parseSteps(String definition) {
+        List<RatePhase> phases = new ArrayList<>();
+        for (String step : definition.split(",")) {
+            if (step.isBlank()) {
+                continue;
+            }
+            String[] parts = step.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid rate step: " + step);
+            }
+            phases.add(new RatePhase(Double.parseDouble(parts[0].trim()), Integer.parseInt(parts[1].trim())));
+        }
+        return phases;
+    }
+}
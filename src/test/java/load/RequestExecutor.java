@@ -0,0 +1,168 @@
+package load;
+
+import builders.RequestData;
+import clients.ApplicationTransport;
+import clients.ClientResponse;
+import results.ResultLogWriter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет шаблоны запросов для виртуальной сессии через {@link ApplicationTransport}
+ * и собирает задержки и ошибки по шаблонам. Каждый ответ проверяется по статусу и телу через
+ * {@link steps.ResponseVerifier}.
+ */
+public class RequestExecutor {
+    private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+
+    private final ApplicationTransport transport;
+    private final Supplier<String> tokenSource;
+    private final Map<RequestTemplate, ActionStats> stats = new EnumMap<>(RequestTemplate.class);
+    private final Map<RequestTemplate, ActionStats> serviceStats = new EnumMap<>(RequestTemplate.class);
+    private final LongAdder abandonedSessions = new LongAdder();
+    private final LongAdder unclosedSessions = new LongAdder();
+    private final LongAdder invalidBodies = new LongAdder();
+    private final ResultLogWriter resultLog;
+
+    public RequestExecutor(ApplicationTransport transport, Supplier<String> tokenSource) {
+        this(transport, tokenSource, null);
+    }
+
+    /**
+     * @param resultLog журнал результатов каждого запроса; null — не вести
+     */
+    public RequestExecutor(ApplicationTransport transport, Supplier<String> tokenSource, ResultLogWriter resultLog) {
+        this.transport = transport;
+        this.tokenSource = tokenSource;
+        this.resultLog = resultLog;
+        for (RequestTemplate template : RequestTemplate.values()) {
+            stats.put(template, new ActionStats(template.name()));
+            serviceStats.put(template, new ActionStats(template.name()));
+        }
+    }
+
+    public VirtualSession newSession() {
+        String token = tokenSource.get();
+        return token == null ? null : new VirtualSession(token);
+    }
+
+    /**
+     * Выполняет шаблон с учетом состояния сессии.
+     *
+     * @return false, если запрос завершился неожиданным статусом или токены закончились
+     */
+    public boolean execute(RequestTemplate template, VirtualSession session) {
+        return execute(template, session, NOT_SCHEDULED);
+    }
+
+    /**
+     * Выполняет шаблон, отсчитывая задержку от запланированного момента отправки {@code intendedStartNanos}
+     * (поправка на coordinated omission). Время обслуживания без поправки учитывается отдельно.
+     */
+    public boolean execute(RequestTemplate template, VirtualSession session, long intendedStartNanos) {
+        if (template == RequestTemplate.ABANDON) {
+            return abandon(session);
+        }
+        if (template.requiresSession() && !session.isLoggedIn()
+                && !execute(RequestTemplate.LOGIN, session, intendedStartNanos)) {
+            return false;
+        }
+
+        RequestData requestData = template.build(session);
+        long begin = System.nanoTime();
+        int status;
+        boolean success;
+        try {
+            ClientResponse response = send(requestData).join();
+            status = response.getStatusCode();
+            success = template.getVerifier().matches(status, response.getBody());
+            if (!success && status == template.getExpectedStatus()) {
+                invalidBodies.increment();
+            }
+        } catch (Exception e) {
+            status = ResultLogWriter.STATUS_ERROR;
+            success = false;
+        }
+        long end = System.nanoTime();
+        long latencyNanos = end - (intendedStartNanos == NOT_SCHEDULED ? begin : intendedStartNanos);
+        stats.get(template).record(latencyNanos, success);
+        serviceStats.get(template).record(end - begin, success);
+        if (resultLog != null) {
+            resultLog.record((byte) template.ordinal(), (short) status,
+                    (int) Math.min(latencyNanos / 1_000, Integer.MAX_VALUE), session.getTokenId());
+        }
+        if (success) {
+            template.onSuccess(session);
+        }
+        return success;
+    }
+
+    public boolean renew(VirtualSession session) {
+        String token = tokenSource.get();
+        if (token == null) {
+            return false;
+        }
+        if (session.isLoggedIn()) {
+            unclosedSessions.increment();
+        }
+        session.renew(token);
+        return true;
+    }
+
+    public List<ActionStats> getStats(RequestTemplate... templates) {
+        List<ActionStats> result = new ArrayList<>(templates.length);
+        for (RequestTemplate template : templates) {
+            if (template != RequestTemplate.ABANDON) {
+                result.add(stats.get(template));
+            }
+        }
+        return result;
+    }
+
+    public List<ActionStats> getServiceStats(RequestTemplate... templates) {
+        List<ActionStats> result = new ArrayList<>(templates.length);
+        for (RequestTemplate template : templates) {
+            if (template != RequestTemplate.ABANDON) {
+                result.add(serviceStats.get(template));
+            }
+        }
+        return result;
+    }
+
+    public long getAbandonedSessions() {
+        return abandonedSessions.sum();
+    }
+
+    /**
+     * Число токенов, замененных без успешного LOGOUT: сессия на сервисе осталась открытой (в том числе ABANDON).
+     */
+    public long getUnclosedSessions() {
+        return unclosedSessions.sum();
+    }
+
+    /**
+     * Число ответов с ожидаемым статусом, но неверным телом (учитываются и как ошибки шаблона).
+     */
+    public long getInvalidBodies() {
+        return invalidBodies.sum();
+    }
+
+    private boolean abandon(VirtualSession session) {
+        if (session.isLoggedIn()) {
+            abandonedSessions.increment();
+        }
+        return renew(session);
+    }
+
+    private CompletableFuture<ClientResponse> send(RequestData requestData) {
+        return requestData.isWithApiKey()
+                ? transport.sendRequest(requestData.getToken(), requestData.getAction())
+                : transport.sendRequestWithoutApiKey(requestData.getToken(), requestData.getAction());
+    }
+}
@@ -0,0 +1,93 @@
+package load;
+
+import builders.RequestData;
+import builders.RequestDataBuilder;
+import steps.ResponseVerifier;
+
+/**
+ * Шаблоны запросов для смешанной нагрузки. Шаблоны, требующие сессии, выполняются только
+ * для залогиненного токена, при необходимости исполнитель сначала делает LOGIN.
+ */
+public enum RequestTemplate {
+    LOGIN(200, false) {
+        @Override
+        RequestData build(VirtualSession session) {
+            return RequestDataBuilder.create().withToken(session.getToken()).withLoginAction().build();
+        }
+
+        @Override
+        void onSuccess(VirtualSession session) {
+            session.setLoggedIn(true);
+        }
+    },
+    ACTION(200, true) {
+        @Override
+        RequestData build(VirtualSession session) {
+            return RequestDataBuilder.create().withToken(session.getToken()).withActionAction().build();
+        }
+
+        @Override
+        void onSuccess(VirtualSession session) {
+            session.markActionDone();
+        }
+    },
+    LOGOUT(200, true) {
+        @Override
+        RequestData build(VirtualSession session) {
+            return RequestDataBuilder.create().withToken(session.getToken()).withLogoutAction().build();
+        }
+
+        @Override
+        void onSuccess(VirtualSession session) {
+            session.setLoggedIn(false);
+        }
+    },
+    INVALID_TOKEN(400, false) {
+        @Override
+        RequestData build(VirtualSession session) {
+            return RequestDataBuilder.create().withInvalidToken().withLoginAction().build();
+        }
+    },
+    NO_API_KEY(401, false) {
+        @Override
+        RequestData build(VirtualSession session) {
+            return RequestDataBuilder.create().withToken(session.getToken()).withActionAction().withoutApiKey().build();
+        }
+    },
+    ABANDON(0, true) {
+        @Override
+        RequestData build(VirtualSession session) {
+            return null;
+        }
+    };
+
+    private final int expectedStatus;
+    private final boolean requiresSession;
+    private final ResponseVerifier verifier;
+
+    RequestTemplate(int expectedStatus, boolean requiresSession) {
+        this.expectedStatus = expectedStatus;
+        this.requiresSession = requiresSession;
+        this.verifier = ResponseVerifier.forStatus(expectedStatus);
+    }
+
+    public int getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    /**
+     * Проверка статуса и тела ответа; null для шаблонов без запроса.
+     */
+    public ResponseVerifier getVerifier() {
+        return verifier;
+    }
+
+    public boolean requiresSession() {
+        return requiresSession;
+    }
+
+    abstract RequestData build(VirtualSession session);
+
+    void onSuccess(VirtualSession session) {
+    }
+}
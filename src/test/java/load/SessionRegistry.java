@@ -0,0 +1,304 @@
+package load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Компактный реестр сессий открытой модели для прогонов с миллионами сессий в одной JVM.
+ * Сессия занимает два long упакованного токена ({@link TokenCodec}), long номера токена и байт состояния
+ * в примитивных массивах: таблица с открытой адресацией по токену (линейное пробирование, удаление сдвигом)
+ * разбита на сегменты со своей блокировкой. Свободные сессии ждут в кольцевой очереди своего сегмента
+ * под той же блокировкой, поэтому общей точки синхронизации нет; строка токена и объект {@link VirtualSession}
+ * создаются только на время запроса.
+ */
+final class SessionRegistry {
+    private static final int SEGMENTS = 64;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final byte EMPTY = -1;
+
+    private final TokenCodec codec;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param capacity сколько сессий должно помещаться одновременно
+     */
+    SessionRegistry(TokenCodec codec, int capacity) {
+        this.codec = codec;
+        int perSegment = (capacity + SEGMENTS - 1) / SEGMENTS;
+        // Запас на неравномерное распределение токенов по сегментам
+        int maxSegmentSize = perSegment + 4 * (int) Math.ceil(Math.sqrt(perSegment)) + 8;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxSegmentSize);
+        }
+    }
+
+    /**
+     * Регистрирует новую сессию, находящуюся в работе (не в очереди свободных).
+     *
+     * @return false, если токен не упаковывается, уже зарегистрирован или сегмент заполнен
+     */
+    boolean register(VirtualSession session) {
+        return insert(session, false);
+    }
+
+    /**
+     * Свободная сессия, внутри сегмента — самая давно простаивающая. Из двух случайных сегментов берется тот,
+     * где свободных больше: при обходе подряд от случайного чаще опустошались бы сегменты, идущие за пустыми,
+     * а остальные при замене токенов заполнялись бы до предела.
+     *
+     * @return сессия или null, если свободных нет
+     */
+    VirtualSession takeIdle() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < SEGMENTS; attempt++) {
+            Segment first = segments[random.nextInt(SEGMENTS)];
+            Segment second = segments[random.nextInt(SEGMENTS)];
+            Segment fuller = first.idleSize >= second.idleSize ? first : second;
+            if (fuller.idleSize > 0) {
+                VirtualSession session = pollIdle(fuller);
+                if (session != null) {
+                    return session;
+                }
+            }
+        }
+        for (Segment segment : segments) {
+            VirtualSession session = pollIdle(segment);
+            if (session != null) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Сохраняет состояние сессии после запроса и ставит ее в очередь свободных. Если токен был заменен
+     * ({@link RequestExecutor#renew}), прежний токен удаляется из реестра, а новый регистрируется.
+     *
+     * @param previousToken токен сессии на момент выдачи
+     * @return false, если новый токен не удалось зарегистрировать и сессия выбыла
+     */
+    boolean release(VirtualSession session, String previousToken) {
+        String token = session.getToken();
+        if (!token.equals(previousToken)) {
+            remove(previousToken);
+            return insert(session, true);
+        }
+        long high = codec.high(token);
+        long low = codec.low(token);
+        Segment segment = segmentFor(hash(high, low));
+        segment.lock.lock();
+        try {
+            segment.states[segment.find(high, low)] = session.getState();
+            segment.offerIdle(high, low);
+        } finally {
+            segment.lock.unlock();
+        }
+        return true;
+    }
+
+    void remove(String token) {
+        long high = codec.high(token);
+        long low = codec.low(token);
+        Segment segment = segmentFor(hash(high, low));
+        segment.lock.lock();
+        try {
+            segment.remove(high, low);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private boolean insert(VirtualSession session, boolean idle) {
+        String token = session.getToken();
+        if (!codec.canPack(token)) {
+            return false;
+        }
+        long high = codec.high(token);
+        long low = codec.low(token);
+        Segment segment = segmentFor(hash(high, low));
+        segment.lock.lock();
+        try {
+            if (!segment.insert(high, low, session.getTokenId(), session.getState())) {
+                return false;
+            }
+            if (idle) {
+                segment.offerIdle(high, low);
+            }
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private VirtualSession pollIdle(Segment segment) {
+        segment.lock.lock();
+        try {
+            int slot = segment.pollIdle();
+            return slot < 0 ? null : new VirtualSession(codec.unpack(segment.keys[slot * 2], segment.keys[slot * 2 + 1]),
+                    segment.tokenIds[slot], segment.states[slot]);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 58)];
+    }
+
+    private static long hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Сегмент таблицы и его очередь свободных сессий; все методы вызываются под {@link #lock}.
+     */
+    static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        private final long[] keys;
+        private final long[] tokenIds;
+        private final byte[] states;
+        /** Кольцо упакованных токенов свободных сессий: в нем только токены этого сегмента, не больше maxSize. */
+        private final long[] idle;
+        private final int maxSize;
+        private int size;
+        private int idleHead;
+        /** Меняется под {@link #lock}, без нее читается только как подсказка для выбора сегмента. */
+        private volatile int idleSize;
+
+        Segment(int maxSize) {
+            int length = (int) Math.ceil(maxSize / LOAD_FACTOR) + 1;
+            this.maxSize = maxSize;
+            this.keys = new long[length * 2];
+            this.tokenIds = new long[length];
+            this.states = new byte[length];
+            this.idle = new long[maxSize * 2];
+            Arrays.fill(states, EMPTY);
+        }
+
+        boolean insert(long high, long low, long tokenId, byte state) {
+            if (size >= maxSize) {
+                return false;
+            }
+            int slot = home(high, low);
+            while (states[slot] != EMPTY) {
+                if (keys[slot * 2] == high && keys[slot * 2 + 1] == low) {
+                    return false;
+                }
+                slot = next(slot);
+            }
+            keys[slot * 2] = high;
+            keys[slot * 2 + 1] = low;
+            tokenIds[slot] = tokenId;
+            states[slot] = state;
+            size++;
+            return true;
+        }
+
+        /**
+         * @return ячейка зарегистрированного токена
+         */
+        int find(long high, long low) {
+            int slot = home(high, low);
+            while (states[slot] != EMPTY) {
+                if (keys[slot * 2] == high && keys[slot * 2 + 1] == low) {
+                    return slot;
+                }
+                slot = next(slot);
+            }
+            throw new IllegalStateException("Session is not registered");
+        }
+
+        void remove(long high, long low) {
+            int hole = find(high, low);
+            // Сдвигаем назад записи цепочки, для которых освободившаяся ячейка лежит между домашней и текущей
+            for (int slot = next(hole); states[slot] != EMPTY; slot = next(slot)) {
+                int home = home(keys[slot * 2], keys[slot * 2 + 1]);
+                if (distance(home, slot) >= distance(hole, slot)) {
+                    keys[hole * 2] = keys[slot * 2];
+                    keys[hole * 2 + 1] = keys[slot * 2 + 1];
+                    tokenIds[hole] = tokenIds[slot];
+                    states[hole] = states[slot];
+                    hole = slot;
+                }
+            }
+            states[hole] = EMPTY;
+            size--;
+        }
+
+        void offerIdle(long high, long low) {
+            int tail = (idleHead + idleSize) % maxSize;
+            idle[tail * 2] = high;
+            idle[tail * 2 + 1] = low;
+            idleSize++;
+        }
+
+        /**
+         * @return ячейка самой давно простаивающей сессии сегмента или -1, если свободных нет
+         */
+        int pollIdle() {
+            if (idleSize == 0) {
+                return -1;
+            }
+            long high = idle[idleHead * 2];
+            long low = idle[idleHead * 2 + 1];
+            idleHead = (idleHead + 1) % maxSize;
+            idleSize--;
+            return find(high, low);
+        }
+
+        int home(long high, long low) {
+            return (int) (((hash(high, low) & 0xFFFFFFFFL) * states.length) >>> 32);
+        }
+
+        int length() {
+            return states.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long tokenIdAt(int slot) {
+            return tokenIds[slot];
+        }
+
+        private int next(int slot) {
+            return slot + 1 == states.length ? 0 : slot + 1;
+        }
+
+        private int distance(int from, int to) {
+            return to >= from ? to - from : to + states.length - from;
+        }
+
+        private long sizeInBytes() {
+            return keys.length * 8L + tokenIds.length * 8L + states.length + idle.length * 8L;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package load;
+
+import helpers.TokenHelper;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Нагрузочное тестирование")
+@Feature("Компактный реестр сессий")
+public class SessionRegistryTests {
+
+    @Test
+    @DisplayName("Упаковка токена в два long обратима")
+    @Story("Упаковка токенов")
+    @Severity(SeverityLevel.CRITICAL)
+    void tokenCodecRoundTrip() {
+        TokenCodec codec = TokenCodec.forValidTokens();
+        assertNotNull(codec);
+        for (int i = 0; i < 1_000; i++) {
+            String token = TokenHelper.generateValidToken();
+            assertTrue(codec.canPack(token));
+            assertEquals(token, codec.unpack(codec.high(token), codec.low(token)));
+        }
+        assertEquals("ABCDEF0123456789ABCDEF0123456789",
+                codec.unpack(codec.high("ABCDEF0123456789ABCDEF0123456789"), codec.low("ABCDEF0123456789ABCDEF0123456789")));
+        assertFalse(codec.canPack("abcdef0123456789ABCDEF0123456789"));
+        assertFalse(codec.canPack("ABCDEF0123456789"));
+        assertFalse(codec.canPack(null));
+    }
+
+    @Test
+    @DisplayName("Цепочка коллизий через конец сегмента: поиск и удаление сдвигом")
+    @Story("Таблица с открытой адресацией")
+    @Severity(SeverityLevel.CRITICAL)
+    void collisionsWrapSegmentEnd() {
+        SessionRegistry.Segment segment = new SessionRegistry.Segment(8);
+        int last = segment.length() - 1;
+        List<Long> atLast = keysWithHome(segment, last, 3);
+        long atZero = keysWithHome(segment, 0, 1).get(0);
+
+        for (int i = 0; i < atLast.size(); i++) {
+            assertTrue(segment.insert(0, atLast.get(i), i, VirtualSession.LOGGED_IN));
+        }
+        assertTrue(segment.insert(0, atZero, 3, VirtualSession.LOGGED_IN));
+        assertFalse(segment.insert(0, atLast.get(1), 9, VirtualSession.LOGGED_IN), "duplicate key");
+        assertEquals(last, segment.find(0, atLast.get(0)));
+        assertEquals(0, segment.find(0, atLast.get(1)));
+        assertEquals(1, segment.find(0, atLast.get(2)));
+        assertEquals(2, segment.find(0, atZero));
+
+        // Удаление головы цепочки сдвигает назад и записи за концом сегмента, и запись с домашней ячейкой 0
+        segment.remove(0, atLast.get(0));
+        assertThrows(IllegalStateException.class, () -> segment.find(0, atLast.get(0)));
+        assertEquals(last, segment.find(0, atLast.get(1)));
+        assertEquals(0, segment.find(0, atLast.get(2)));
+        assertEquals(1, segment.find(0, atZero));
+        assertEquals(1, segment.tokenIdAt(segment.find(0, atLast.get(1))));
+        assertEquals(3, segment.tokenIdAt(segment.find(0, atZero)));
+
+        // Удаление из середины цепочки не должно двигать запись, стоящую в своей домашней ячейке
+        segment.remove(0, atLast.get(2));
+        assertEquals(last, segment.find(0, atLast.get(1)));
+        assertEquals(0, segment.find(0, atZero));
+        assertEquals(2, segment.size());
+    }
+
+    @Test
+    @DisplayName("Реестр совпадает с эталонной моделью при случайных операциях")
+    @Story("Таблица с открытой адресацией")
+    @Severity(SeverityLevel.NORMAL)
+    void registryMatchesModel() {
+        TokenCodec codec = TokenCodec.forValidTokens();
+        SessionRegistry registry = new SessionRegistry(codec, 256);
+        Map<String, Byte> idle = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            if (idle.size() < 200 && (idle.isEmpty() || random.nextInt(3) == 0)) {
+                VirtualSession session = new VirtualSession(TokenHelper.generateValidToken());
+                assertTrue(registry.register(session));
+                session.setLoggedIn(random.nextBoolean());
+                assertTrue(registry.release(session, session.getToken()));
+                idle.put(session.getToken(), session.getState());
+                continue;
+            }
+            VirtualSession session = registry.takeIdle();
+            assertNotNull(session);
+            assertEquals(idle.remove(session.getToken()), session.getState());
+            switch (random.nextInt(3)) {
+                case 0 -> registry.remove(session.getToken());
+                case 1 -> {
+                    String previous = session.getToken();
+                    session.renew(TokenHelper.generateValidToken());
+                    assertTrue(registry.release(session, previous));
+                    idle.put(session.getToken(), session.getState());
+                }
+                default -> {
+                    session.markActionDone();
+                    assertTrue(registry.release(session, session.getToken()));
+                    idle.put(session.getToken(), session.getState());
+                }
+            }
+            assertEquals(idle.size(), registry.size());
+        }
+        while (!idle.isEmpty()) {
+            VirtualSession session = registry.takeIdle();
+            assertEquals(idle.remove(session.getToken()), session.getState());
+            registry.remove(session.getToken());
+        }
+        assertNull(registry.takeIdle());
+        assertEquals(0, registry.size());
+    }
+
+    private static List<Long> keysWithHome(SessionRegistry.Segment segment, int home, int count) {
+        List<Long> keys = new ArrayList<>(count);
+        for (long low = 1; keys.size() < count; low++) {
+            if (segment.home(0, low) == home) {
+                keys.add(low);
+            }
+        }
+        return keys;
+    }
+}
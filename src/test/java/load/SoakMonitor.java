@@ -0,0 +1,201 @@
+package load;
+
+import metrics.LatencyHistogram;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Оконная статистика длительного прогона: раз в окно берется разность накопленных гистограмм исполнителя
+ * с предыдущим снимком, окно сравнивается с базовой линией (окна сразу после прогрева) по p99,
+ * пропускной способности и доле ошибок и дописывается строкой в CSV.
+ * Память не растет с длительностью: хранятся только предыдущий снимок и базовая линия.
+ */
+public class SoakMonitor implements Closeable {
+    private static final Logger logger = Logger.getLogger(SoakMonitor.class.getName());
+    private static final RequestTemplate[] FULL_FLOW = {RequestTemplate.LOGIN, RequestTemplate.ACTION, RequestTemplate.LOGOUT};
+    private static final String HEADER = "window,elapsed_s,requests,rps,errors,error_rate,p50_ms,p99_ms,p99.9_ms,max_ms,"
+            + "login_p99_ms,action_p99_ms,logout_p99_ms,p99_ratio,rps_ratio,open_sessions,unclosed_sessions,heap_used_mb,state";
+
+    private final RequestExecutor executor;
+    private final BufferedWriter output;
+    private final int warmupWindows;
+    private final int baselineWindows;
+    private final double p99DriftRatio;
+    private final double throughputDriftRatio;
+    private final double errorRateDrift;
+    private final long start = System.nanoTime();
+    private final LatencyHistogram[] previous = new LatencyHistogram[FULL_FLOW.length];
+    private final long[] previousErrors = new long[FULL_FLOW.length];
+    private final LatencyHistogram baseline = new LatencyHistogram();
+    private long previousSampleNanos = start;
+    private int windows;
+    private long baselineErrors;
+    private double baselineSeconds;
+    private int driftWindows;
+    private double worstP99Ratio;
+    private double worstThroughputRatio = Double.NaN;
+
+    public SoakMonitor(RequestExecutor executor, Path output) throws IOException {
+        this.executor = executor;
+        this.warmupWindows = LoadConfig.getSoakWarmupWindows();
+        this.baselineWindows = Math.max(1, LoadConfig.getSoakBaselineWindows());
+        this.p99DriftRatio = LoadConfig.getSoakP99DriftRatio();
+        this.throughputDriftRatio = LoadConfig.getSoakThroughputDriftRatio();
+        this.errorRateDrift = LoadConfig.getSoakErrorRateDrift();
+        for (int i = 0; i < FULL_FLOW.length; i++) {
+            previous[i] = new LatencyHistogram();
+        }
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.output = Files.newBufferedWriter(output);
+        this.output.write(HEADER);
+        this.output.newLine();
+        this.output.flush();
+    }
+
+    /**
+     * Закрывает текущее окно; вызывается по расписанию раз в {@code soak.window.seconds}.
+     */
+    public synchronized void closeWindow() {
+        closeWindow(false);
+    }
+
+    /**
+     * Закрывает неполное окно после остановки прогона: оно пишется в CSV с состоянием {@code partial}
+     * и не входит ни в базовую линию, ни в сравнение с ней.
+     */
+    public synchronized void closePartialWindow() {
+        closeWindow(true);
+    }
+
+    private void closeWindow(boolean partial) {
+        long now = System.nanoTime();
+        double seconds = (now - previousSampleNanos) / 1e9;
+        if (seconds < 1) {
+            return;
+        }
+        previousSampleNanos = now;
+        windows++;
+
+        List<ActionStats> stats = executor.getStats(FULL_FLOW);
+        LatencyHistogram total = new LatencyHistogram();
+        double[] actionP99 = new double[FULL_FLOW.length];
+        long errors = 0;
+        for (int i = 0; i < FULL_FLOW.length; i++) {
+            LatencyHistogram current = stats.get(i).getHistogram().copy();
+            long currentErrors = stats.get(i).getErrors();
+            LatencyHistogram window = current.since(previous[i]);
+            actionP99[i] = millis(window.getValueAtPercentile(99));
+            total.add(window);
+            errors += currentErrors - previousErrors[i];
+            previous[i] = current;
+            previousErrors[i] = currentErrors;
+        }
+
+        long requests = total.getTotalCount();
+        double rps = requests / seconds;
+        double errorRate = requests == 0 ? 0 : (double) errors / requests;
+        double p99 = millis(total.getValueAtPercentile(99));
+        double p99Ratio = Double.NaN;
+        double rpsRatio = Double.NaN;
+        String state;
+        if (partial) {
+            state = "partial";
+        } else if (windows <= warmupWindows) {
+            state = "warmup";
+        } else if (windows <= warmupWindows + baselineWindows) {
+            baseline.add(total);
+            baselineErrors += errors;
+            baselineSeconds += seconds;
+            state = "baseline";
+        } else {
+            double baselineP99 = millis(baseline.getValueAtPercentile(99));
+            long baselineRequests = baseline.getTotalCount();
+            double baselineRps = baselineRequests / baselineSeconds;
+            double baselineErrorRate = baselineRequests == 0 ? 0 : (double) baselineErrors / baselineRequests;
+            p99Ratio = baselineP99 > 0 ? p99 / baselineP99 : Double.NaN;
+            rpsRatio = baselineRps > 0 ? rps / baselineRps : Double.NaN;
+            state = drift(p99Ratio, rpsRatio, errorRate - baselineErrorRate);
+            if (!state.equals("ok")) {
+                driftWindows++;
+            }
+            worstP99Ratio = Math.max(worstP99Ratio, Double.isNaN(p99Ratio) ? 0 : p99Ratio);
+            if (!Double.isNaN(rpsRatio) && !(rpsRatio >= worstThroughputRatio)) {
+                worstThroughputRatio = rpsRatio;
+            }
+        }
+
+        long openSessions = successes(stats.get(0)) - successes(stats.get(2));
+        long heapUsedMb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20;
+        long elapsedSeconds = Math.round((now - start) / 1e9);
+        String row = String.format(Locale.ROOT,
+                "%d,%d,%d,%.1f,%d,%.5f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.3f,%.3f,%d,%d,%d,%s",
+                windows, elapsedSeconds, requests, rps, errors, errorRate,
+                millis(total.getValueAtPercentile(50)), p99, millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxMicros()), actionP99[0], actionP99[1], actionP99[2], p99Ratio, rpsRatio,
+                openSessions, executor.getUnclosedSessions(), heapUsedMb, state);
+        try {
+            output.write(row);
+            output.newLine();
+            output.flush();
+        } catch (IOException e) {
+            logger.warning("Failed to write soak window: " + e.getMessage());
+        }
+        String ratio = Double.isNaN(p99Ratio) ? "" : String.format(Locale.ROOT, " (x%.2f)", p99Ratio);
+        System.out.printf(Locale.ROOT, "[window %d, %ds] %.1f req/s p99=%.2fms%s errors=%.3f%% open=%d unclosed=%d heap=%dMB %s%n",
+                windows, elapsedSeconds, rps, p99, ratio, errorRate * 100, openSessions,
+                executor.getUnclosedSessions(), heapUsedMb, state);
+    }
+
+    public synchronized void printSummary(PrintStream out) {
+        long baselineRequests = baseline.getTotalCount();
+        out.printf(Locale.ROOT, "Soak: %d windows, baseline %.1f req/s p99=%.2fms, drift windows: %d%n",
+                windows, baselineSeconds > 0 ? baselineRequests / baselineSeconds : 0,
+                millis(baseline.getValueAtPercentile(99)), driftWindows);
+        out.printf(Locale.ROOT, "Worst p99 ratio: %.2f, worst throughput ratio: %.2f, unclosed sessions: %d%n",
+                worstP99Ratio, worstThroughputRatio, executor.getUnclosedSessions());
+    }
+
+    public synchronized int getDriftWindows() {
+        return driftWindows;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+
+    private String drift(double p99Ratio, double rpsRatio, double errorRateIncrease) {
+        List<String> flags = new ArrayList<>(3);
+        if (p99Ratio > p99DriftRatio) {
+            flags.add("p99");
+        }
+        if (rpsRatio < throughputDriftRatio) {
+            flags.add("rps");
+        }
+        if (errorRateIncrease > errorRateDrift) {
+            flags.add("errors");
+        }
+        return flags.isEmpty() ? "ok" : "drift:" + String.join("|", flags);
+    }
+
+    private static long successes(ActionStats stats) {
+        return stats.getRequests() - stats.getErrors();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
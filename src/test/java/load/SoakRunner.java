@@ -0,0 +1,54 @@
+package load;
+
+import clients.ApplicationTransport;
+import metrics.RequestMetrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Длительный прогон полного цикла LOGIN → ACTION → LOGOUT в закрытой модели для поиска медленной деградации:
+ * поминутные окна сравниваются с базовой линией, незакрытые сессии считаются, временной ряд пишется в CSV.
+ * <p>
+ * Запуск: {@code mvn -Psoak -Dload.users=200 -Dsoak.duration.minutes=1440}
+ */
+public class SoakRunner {
+    private static final Logger logger = Logger.getLogger(SoakRunner.class.getName());
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int users = LoadConfig.getUsers();
+        int durationSeconds = (int) TimeUnit.MINUTES.toSeconds(LoadConfig.getSoakDurationMinutes());
+        int windowSeconds = LoadConfig.getSoakWindowSeconds();
+        Path output = Path.of(LoadConfig.getSoakOutput());
+
+        logger.info(String.format("Starting soak: users=%d, duration=%ds, window=%ds, output=%s",
+                users, durationSeconds, windowSeconds, output));
+
+        RequestExecutor executor = new RequestExecutor(ApplicationTransport.forName(LoadConfig.getTransport()),
+                LoadRunner.tokenSource());
+        LoadRunner runner = new LoadRunner(executor, null, LoadConfig.getThinkTimeMillis());
+        ScheduledExecutorService windows = Executors.newSingleThreadScheduledExecutor();
+        double elapsedSeconds;
+        try (SoakMonitor monitor = new SoakMonitor(executor, output)) {
+            LoadRunner.startMock(LoadConfig.getMockBackend());
+            try {
+                windows.scheduleAtFixedRate(monitor::closeWindow, windowSeconds, windowSeconds, TimeUnit.SECONDS);
+                elapsedSeconds = runner.run(users, durationSeconds, LoadConfig.getRampUpSeconds());
+                windows.shutdown();
+                windows.awaitTermination(10, TimeUnit.SECONDS);
+                monitor.closePartialWindow();
+            } finally {
+                windows.shutdownNow();
+                LoadRunner.stopMock();
+            }
+            LoadReport.print(System.out, runner.reportedStats(), elapsedSeconds);
+            monitor.printSummary(System.out);
+        }
+        System.out.println("Time series: " + output.toAbsolutePath());
+        RequestMetrics.export();
+    }
+}
@@ -0,0 +1,83 @@
+package load;
+
+import config.TestConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Упаковка токена из 32 символов 16-символьного алфавита в два long: символ — его номер в алфавите (4 бита),
+ * первые 16 символов — старшая половина. Для {@code ABCDEF0123456789} это 128-битное шестнадцатеричное число
+ * с переставленными цифрами.
+ */
+final class TokenCodec {
+    static final int TOKEN_LENGTH = 32;
+    private static final int HALF_LENGTH = TOKEN_LENGTH / 2;
+    private static final int ALPHABET_SIZE = 16;
+
+    private final byte[] alphabet;
+    private final byte[] digits = new byte[128];
+
+    private TokenCodec(String alphabet) {
+        this.alphabet = alphabet.getBytes(StandardCharsets.US_ASCII);
+        Arrays.fill(digits, (byte) -1);
+        for (int i = 0; i < this.alphabet.length; i++) {
+            digits[this.alphabet[i]] = (byte) i;
+        }
+    }
+
+    /**
+     * @return кодек для {@code token.valid.chars} и {@code test.token.length} или null, если такие токены не упаковываются
+     */
+    static TokenCodec forValidTokens() {
+        String alphabet = TestConfig.getTokenValidChars();
+        if (TestConfig.getTokenLength() != TOKEN_LENGTH || alphabet.length() != ALPHABET_SIZE
+                || alphabet.chars().distinct().count() != ALPHABET_SIZE || alphabet.chars().anyMatch(c -> c >= 128)) {
+            return null;
+        }
+        return new TokenCodec(alphabet);
+    }
+
+    boolean canPack(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            if (c >= 128 || digits[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long high(String token) {
+        return pack(token, 0);
+    }
+
+    long low(String token) {
+        return pack(token, HALF_LENGTH);
+    }
+
+    String unpack(long high, long low) {
+        byte[] token = new byte[TOKEN_LENGTH];
+        unpack(high, token, 0);
+        unpack(low, token, HALF_LENGTH);
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    private long pack(String token, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + HALF_LENGTH; i++) {
+            value = (value << 4) | digits[token.charAt(i)];
+        }
+        return value;
+    }
+
+    private void unpack(long value, byte[] token, int offset) {
+        for (int i = offset + HALF_LENGTH - 1; i >= offset; i--) {
+            token[i] = alphabet[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
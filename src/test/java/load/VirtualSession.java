@@ -0,0 +1,66 @@
+package load;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VirtualSession {
+    public static final byte LOGGED_OUT = 0;
+    public static final byte LOGGED_IN = 1;
+    public static final byte ACTION_DONE = 2;
+
+    private static final AtomicLong TOKEN_IDS = new AtomicLong();
+
+    private String token;
+    private long tokenId;
+    private byte state;
+
+    public VirtualSession(String token) {
+        this(token, TOKEN_IDS.incrementAndGet(), LOGGED_OUT);
+    }
+
+    /**
+     * Восстанавливает сессию, хранившуюся в {@link SessionRegistry}.
+     */
+    VirtualSession(String token, long tokenId, byte state) {
+        this.token = token;
+        this.tokenId = tokenId;
+        this.state = state;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Порядковый номер текущего токена в прогоне (для журнала результатов).
+     */
+    public long getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * @return {@link #LOGGED_OUT}, {@link #LOGGED_IN} или {@link #ACTION_DONE}
+     */
+    public byte getState() {
+        return state;
+    }
+
+    public boolean isLoggedIn() {
+        return state != LOGGED_OUT;
+    }
+
+    public void setLoggedIn(boolean loggedIn) {
+        this.state = loggedIn ? LOGGED_IN : LOGGED_OUT;
+    }
+
+    public void markActionDone() {
+        if (state != LOGGED_OUT) {
+            state = ACTION_DONE;
+        }
+    }
+
+    public void renew(String token) {
+        this.token = token;
+        this.tokenId = TOKEN_IDS.incrementAndGet();
+        this.state = LOGGED_OUT;
+    }
+}
@@ -0,0 +1,130 @@
+package load;
+
+import metrics.LatencyHistogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Протокол распределенного режима поверх TCP: воркер отправляет HELLO, координатор отвечает заданием,
+ * затем воркер периодически присылает накопленные гистограммы и счетчики по шаблонам (последний отчет — с флагом last).
+ */
+final class WorkerProtocol {
+    static final int MAGIC = 0x4C4F4144;
+    static final int VERSION = 1;
+
+    private static final byte HELLO = 1;
+    private static final byte ASSIGNMENT = 2;
+    private static final byte REPORT = 3;
+
+    private WorkerProtocol() {
+    }
+
+    static void writeHello(DataOutput out, String workerId) throws IOException {
+        out.writeByte(HELLO);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(workerId);
+    }
+
+    static String readHello(DataInput in) throws IOException {
+        expect(in, HELLO);
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("Incompatible worker protocol: magic=" + Integer.toHexString(magic) + ", version=" + version);
+        }
+        return in.readUTF();
+    }
+
+    private static void expect(DataInput in, byte type) throws IOException {
+        byte actual = in.readByte();
+        if (actual != type) {
+            throw new IOException("Unexpected message type " + actual + ", expected " + type);
+        }
+    }
+
+    /**
+     * Задание воркеру: сценарий, его доля пользователей или интенсивности и собственный диапазон номеров токенов.
+     *
+     * @param mix пустая строка — сценарий fullflow
+     */
+    record Assignment(int workerIndex, String mix, String model, int users, int durationSeconds, int rampUpSeconds,
+                      long thinkTimeMillis, List<RatePhase> phases, long firstTokenIndex, int tokenCount,
+                      int reportIntervalSeconds) {
+
+        void write(DataOutput out) throws IOException {
+            out.writeByte(ASSIGNMENT);
+            out.writeInt(workerIndex);
+            out.writeUTF(mix);
+            out.writeUTF(model);
+            out.writeInt(users);
+            out.writeInt(durationSeconds);
+            out.writeInt(rampUpSeconds);
+            out.writeLong(thinkTimeMillis);
+            out.writeInt(phases.size());
+            for (RatePhase phase : phases) {
+                out.writeDouble(phase.rate());
+                out.writeInt(phase.durationSeconds());
+            }
+            out.writeLong(firstTokenIndex);
+            out.writeInt(tokenCount);
+            out.writeInt(reportIntervalSeconds);
+        }
+
+        static Assignment read(DataInput in) throws IOException {
+            expect(in, ASSIGNMENT);
+            int workerIndex = in.readInt();
+            String mix = in.readUTF();
+            String model = in.readUTF();
+            int users = in.readInt();
+            int durationSeconds = in.readInt();
+            int rampUpSeconds = in.readInt();
+            long thinkTimeMillis = in.readLong();
+            int phaseCount = in.readInt();
+            List<RatePhase> phases = new ArrayList<>(phaseCount);
+            for (int i = 0; i < phaseCount; i++) {
+                phases.add(new RatePhase(in.readDouble(), in.readInt()));
+            }
+            return new Assignment(workerIndex, mix, model, users, durationSeconds, rampUpSeconds, thinkTimeMillis,
+                    phases, in.readLong(), in.readInt(), in.readInt());
+        }
+    }
+
+    /**
+     * Накопленные с начала прогона результаты воркера; координатор хранит последний отчет каждого воркера,
+     * поэтому потерянный промежуточный отчет не искажает итог.
+     */
+    record Report(boolean last, double elapsedSeconds, List<ActionSnapshot> actions) {
+
+        void write(DataOutput out) throws IOException {
+            out.writeByte(REPORT);
+            out.writeBoolean(last);
+            out.writeDouble(elapsedSeconds);
+            out.writeInt(actions.size());
+            for (ActionSnapshot action : actions) {
+                out.writeUTF(action.name());
+                out.writeLong(action.errors());
+                action.histogram().writeTo(out);
+            }
+        }
+
+        static Report read(DataInput in) throws IOException {
+            expect(in, REPORT);
+            boolean last = in.readBoolean();
+            double elapsedSeconds = in.readDouble();
+            int count = in.readInt();
+            List<ActionSnapshot> actions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                actions.add(new ActionSnapshot(in.readUTF(), in.readLong(), LatencyHistogram.readFrom(in)));
+            }
+            return new Report(last, elapsedSeconds, actions);
+        }
+    }
+
+    record ActionSnapshot(String name, long errors, LatencyHistogram histogram) {
+    }
+}
@@ -0,0 +1,97 @@
+package load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Взвешенная смесь шаблонов запросов, например {@code ACTION:70,LOGIN:10,LOGOUT:10,INVALID_TOKEN:5,NO_API_KEY:5}.
+ */
+public class WorkloadMix {
+    private final RequestTemplate[] templates;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private WorkloadMix(Map<RequestTemplate, Integer> weights) {
+        this.templates = weights.keySet().toArray(new RequestTemplate[0]);
+        this.cumulativeWeights = new int[templates.length];
+        int total = 0;
+        for (int i = 0; i < templates.length; i++) {
+            total += weights.get(templates[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Workload mix must have a positive total weight");
+        }
+        this.totalWeight = total;
+    }
+
+    public static WorkloadMix parse(String definition) {
+        Map<RequestTemplate, Integer> weights = new EnumMap<>(RequestTemplate.class);
+        for (String entry : definition.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid workload mix entry: " + entry);
+            }
+            addWeight(weights, parts[0], parts[1]);
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public static WorkloadMix load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        Map<RequestTemplate, Integer> weights = new EnumMap<>(RequestTemplate.class);
+        for (String name : properties.stringPropertyNames()) {
+            addWeight(weights, name, properties.getProperty(name));
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public RequestTemplate next() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return templates[i];
+            }
+        }
+        return templates[templates.length - 1];
+    }
+
+    public RequestTemplate[] getTemplates() {
+        return templates.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < templates.length; i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(templates[i]).append(':').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return result.toString();
+    }
+
+    private static void addWeight(Map<RequestTemplate, Integer> weights, String template, String weight) {
+        int value = Integer.parseInt(weight.trim());
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative weight for " + template);
+        }
+        weights.merge(RequestTemplate.valueOf(template.trim().toUpperCase(Locale.ROOT)), value, Integer::sum);
+    }
+}
@@ -0,0 +1,189 @@
+package metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасная лог-линейная гистограмма задержек в микросекундах (в духе HdrHistogram).
+ * Каждый интервал [2^n, 2^(n+1)) делится на 64 равные корзины, что дает относительную погрешность ~1.5%.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+    static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_TRACKABLE_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        long currentMax = maxValue.get();
+        while (value > currentMax && !maxValue.compareAndSet(currentMax, value)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public long getMaxMicros() {
+        return maxValue.get();
+    }
+
+    public double getMeanMicros() {
+        long total = 0;
+        double sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                total += count;
+                sum += count * (double) medianValueAt(i);
+            }
+        }
+        return total == 0 ? 0 : sum / total;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        maxValue.accumulateAndGet(other.getMaxMicros(), Math::max);
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Записи, сделанные после снимка {@code earlier} этой же гистограммы (например, за минутное окно).
+     * Максимум за интервал оценивается верхней границей старшей непустой корзины.
+     */
+    public LatencyHistogram since(LatencyHistogram earlier) {
+        LatencyHistogram delta = new LatencyHistogram();
+        int highest = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i) - earlier.counts.get(i);
+            if (count > 0) {
+                delta.counts.set(i, count);
+                highest = i;
+            }
+        }
+        if (highest >= 0) {
+            delta.maxValue.set(Math.min(highestValueAt(highest), getMaxMicros()));
+        }
+        return delta;
+    }
+
+    /**
+     * Разреженная сериализация: только непустые корзины (номер, счетчик) и максимум.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int[] indexes = new int[BUCKET_COUNT];
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        int nonEmpty = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                indexes[nonEmpty] = i;
+                bucketCounts[nonEmpty++] = count;
+            }
+        }
+        out.writeLong(maxValue.get());
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < nonEmpty; i++) {
+            out.writeShort(indexes[i]);
+            out.writeLong(bucketCounts[i]);
+        }
+    }
+
+    public static LatencyHistogram readFrom(DataInput in) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.maxValue.set(in.readLong());
+        int nonEmpty = in.readInt();
+        if (nonEmpty < 0 || nonEmpty > BUCKET_COUNT) {
+            throw new IOException("Invalid histogram bucket count: " + nonEmpty);
+        }
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = in.readUnsignedShort();
+            if (index >= BUCKET_COUNT) {
+                throw new IOException("Invalid histogram bucket index: " + index);
+            }
+            histogram.counts.set(index, in.readLong());
+        }
+        return histogram;
+    }
+
+    public void forEachBucket(BucketConsumer consumer) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                consumer.accept(lowestValueAt(i), highestValueAt(i), count);
+            }
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_BITS;
+        return (shift << SUB_BUCKET_HALF_BITS) + (int) (value >>> shift);
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_HALF_BITS) - 1;
+        return (long) (index - (shift << SUB_BUCKET_HALF_BITS)) << shift;
+    }
+
+    static long highestValueAt(int index) {
+        return lowestValueAt(index + 1) - 1;
+    }
+
+    static long medianValueAt(int index) {
+        return (lowestValueAt(index) + highestValueAt(index)) / 2;
+    }
+
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(long lowMicros, long highMicros, long count);
+    }
+}
@@ -0,0 +1,29 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("harness.ApplicationRequest")
+@Label("Application Request")
+@Category({"Test Harness", "HTTP"})
+@Description("Запрос к /endpoint тестируемого сервиса")
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+    @Label("Action")
+    String action;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("API Key Present")
+    boolean apiKey;
+
+    @Label("Transport")
+    String transport;
+
+    @Label("Target")
+    String target;
+}
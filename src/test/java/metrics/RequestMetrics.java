@@ -0,0 +1,137 @@
+package metrics;
+
+import config.TestConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Счетчики и таймеры запросов к /endpoint в разрезе экземпляра сервиса, действия, статуса и наличия API-ключа.
+ * Снимок выгружается в текстовом формате Prometheus в {@code metrics.prometheus.file} при завершении JVM.
+ * Неизвестные действия (фаззинг, воспроизведение, негативные тесты) сводятся в одно значение {@value #OTHER_ACTION},
+ * чтобы число серий не росло с числом входных данных.
+ */
+public class RequestMetrics {
+    private static final Logger logger = Logger.getLogger(RequestMetrics.class.getName());
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final boolean ENABLED = Boolean.parseBoolean(TestConfig.getProperty("metrics.enabled", "true"));
+    private static final Set<String> ACTIONS = Set.of("LOGIN", "ACTION", "LOGOUT");
+    private static final String OTHER_ACTION = "OTHER";
+    private static final String EXPORT_FILE = TestConfig.getProperty("metrics.prometheus.file", "target/metrics/client-metrics.prom");
+
+    private static final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED && !EXPORT_FILE.isEmpty()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(RequestMetrics::exportQuietly, "metrics-export"));
+        }
+    }
+
+    public static void record(String target, String action, int statusCode, boolean apiKey, long durationNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        Series value = series.computeIfAbsent(new SeriesKey(target, actionLabel(action), statusCode, apiKey),
+                key -> new Series());
+        value.count.increment();
+        value.sumNanos.add(durationNanos);
+        value.histogram.recordNanos(durationNanos);
+    }
+
+    public static void export() throws IOException {
+        export(Path.of(EXPORT_FILE));
+    }
+
+    public static void export(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "metrics", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            writePrometheus(writer);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void writePrometheus(Writer writer) throws IOException {
+        var sorted = series.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(SeriesKey::target)
+                        .thenComparing(SeriesKey::action)
+                        .thenComparingInt(SeriesKey::statusCode)
+                        .thenComparing(SeriesKey::apiKey)))
+                .toList();
+
+        writer.write("# HELP app_client_requests_total Requests sent to the application endpoint\n");
+        writer.write("# TYPE app_client_requests_total counter\n");
+        for (var entry : sorted) {
+            writer.write("app_client_requests_total" + labels(entry.getKey(), null) + " " + entry.getValue().count.sum() + "\n");
+        }
+
+        writer.write("# HELP app_client_request_duration_seconds Client-side request latency\n");
+        writer.write("# TYPE app_client_request_duration_seconds summary\n");
+        for (var entry : sorted) {
+            Series value = entry.getValue();
+            for (double quantile : QUANTILES) {
+                double seconds = value.histogram.getValueAtPercentile(quantile * 100) / 1e6;
+                writer.write("app_client_request_duration_seconds" + labels(entry.getKey(), quantile) + " " + format(seconds) + "\n");
+            }
+            writer.write("app_client_request_duration_seconds_sum" + labels(entry.getKey(), null) + " "
+                    + format(value.sumNanos.sum() / 1e9) + "\n");
+            writer.write("app_client_request_duration_seconds_count" + labels(entry.getKey(), null) + " "
+                    + value.count.sum() + "\n");
+        }
+    }
+
+    public static void reset() {
+        series.clear();
+    }
+
+    private static void exportQuietly() {
+        if (series.isEmpty()) {
+            return;
+        }
+        try {
+            export();
+        } catch (IOException | UncheckedIOException e) {
+            logger.warning("Could not export metrics: " + e.getMessage());
+        }
+    }
+
+    private static String actionLabel(String action) {
+        return action != null && ACTIONS.contains(action) ? action : OTHER_ACTION;
+    }
+
+    private static String labels(SeriesKey key, Double quantile) {
+        String status = key.statusCode() == RequestTimer.STATUS_ERROR ? "error" : String.valueOf(key.statusCode());
+        String labels = String.format("{target=\"%s\",action=\"%s\",status=\"%s\",api_key=\"%s\"",
+                escape(key.target()), escape(key.action()), status, key.apiKey());
+        return quantile == null ? labels + "}" : labels + ",quantile=\"" + quantile + "\"}";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private record SeriesKey(String target, String action, int statusCode, boolean apiKey) {
+    }
+
+    private static final class Series {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,52 @@
+package metrics;
+
+import jdk.jfr.EventType;
+
+/**
+ * Замер одного запроса: время для {@link RequestMetrics} и событие JFR {@link RequestEvent}.
+ * Событие создается, только если его записывает хотя бы одна запись JFR.
+ */
+public final class RequestTimer {
+    public static final int STATUS_ERROR = -1;
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(RequestEvent.class);
+
+    private final RequestEvent event;
+    private final String transport;
+    private final String target;
+    private final long startNanos;
+
+    private RequestTimer(String transport, String target) {
+        this.transport = transport;
+        this.target = target;
+        this.event = EVENT_TYPE.isEnabled() ? new RequestEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        this.startNanos = System.nanoTime();
+    }
+
+    public static RequestTimer start(String transport, String target) {
+        return new RequestTimer(transport, target);
+    }
+
+    /**
+     * @return длительность запроса в наносекундах
+     */
+    public long stop(String action, boolean apiKey, int statusCode) {
+        long durationNanos = System.nanoTime() - startNanos;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.action = action;
+                event.statusCode = statusCode;
+                event.apiKey = apiKey;
+                event.transport = transport;
+                event.target = target;
+                event.commit();
+            }
+        }
+        RequestMetrics.record(target, action, statusCode, apiKey, durationNanos);
+        return durationNanos;
+    }
+}
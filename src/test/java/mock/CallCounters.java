@@ -0,0 +1,71 @@
+package mock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики вызовов мока без журнала запросов: общие по эндпоинтам ({@link LongAdder}) и по токену из тела формы.
+ * Число токенов ограничено {@code maxTokens}, вызовы с новыми токенами сверх лимита учитываются как untracked.
+ */
+public class CallCounters {
+    private final LongAdder[] totals = new LongAdder[MockEndpoint.count()];
+    private final Map<String, AtomicLongArray> tokens = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    private final int maxTokens;
+
+    public CallCounters(int maxTokens) {
+        this.maxTokens = maxTokens;
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new LongAdder();
+        }
+    }
+
+    public boolean isTrackingTokens() {
+        return maxTokens > 0;
+    }
+
+    public void hit(MockEndpoint endpoint, String token) {
+        totals[endpoint.ordinal()].increment();
+        if (token == null || maxTokens <= 0) {
+            return;
+        }
+        AtomicLongArray counts = tokens.get(token);
+        if (counts == null) {
+            if (tokens.size() >= maxTokens) {
+                untracked.increment();
+                return;
+            }
+            counts = tokens.computeIfAbsent(token, key -> new AtomicLongArray(totals.length));
+        }
+        counts.incrementAndGet(endpoint.ordinal());
+    }
+
+    public long getCalls(MockEndpoint endpoint) {
+        return totals[endpoint.ordinal()].sum();
+    }
+
+    public long getCalls(String token, MockEndpoint endpoint) {
+        AtomicLongArray counts = tokens.get(token);
+        return counts == null ? 0 : counts.get(endpoint.ordinal());
+    }
+
+    /**
+     * @return вызовы с токеном по всем эндпоинтам в порядке {@link MockEndpoint#ordinal()}
+     */
+    public long[] snapshot(String token) {
+        long[] snapshot = new long[totals.length];
+        AtomicLongArray counts = tokens.get(token);
+        if (counts != null) {
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+            }
+        }
+        return snapshot;
+    }
+
+    public long getUntracked() {
+        return untracked.sum();
+    }
+}
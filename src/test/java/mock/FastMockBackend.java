@@ -0,0 +1,147 @@
+package mock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.TestConfig;
+import helpers.HttpServerHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Легковесный мок для нагрузочных прогонов на NIO-сервере JDK: статусы ответов хранятся в полях,
+ * запросы не журналируются, а только считаются в {@link CallCounters}; количество рабочих потоков задается {@code mock.workers}.
+ * Задержанные по профилю ответы отправляет планировщик, рабочие потоки на время задержки не заняты.
+ */
+public class FastMockBackend implements MockBackend {
+    private static final String AUTH_ENDPOINT = TestConfig.getMockAuthEndpoint();
+    private static final String ACTION_ENDPOINT = TestConfig.getMockActionEndpoint();
+    private static final int BACKLOG = 4096;
+    private static final int DELAY_THREADS = 2;
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    static {
+        HttpServerHelper.enableTcpNoDelay();
+    }
+
+    private final int port;
+    private volatile MockProfile authProfile = MockProfile.constant(FaultProfile.healthy(200));
+    private volatile MockProfile actionProfile = MockProfile.constant(FaultProfile.healthy(200));
+    private final Map<String, Integer> authTokenStatuses = new ConcurrentHashMap<>();
+    private final Map<String, Integer> actionTokenStatuses = new ConcurrentHashMap<>();
+    private final CallCounters callCounters = new CallCounters(TestConfig.getMockTokenCountersMax());
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService delayedResponses;
+
+    public FastMockBackend(int port) {
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start mock on port " + port, e);
+        }
+        workers = Executors.newFixedThreadPool(TestConfig.getMockWorkers());
+        delayedResponses = Executors.newScheduledThreadPool(DELAY_THREADS);
+        server.setExecutor(workers);
+        server.createContext(AUTH_ENDPOINT, exchange -> respond(exchange, MockEndpoint.AUTH, authProfile, authTokenStatuses));
+        server.createContext(ACTION_ENDPOINT, exchange -> respond(exchange, MockEndpoint.DO_ACTION, actionProfile, actionTokenStatuses));
+        server.start();
+    }
+
+    @Override
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+        delayedResponses.shutdownNow();
+    }
+
+    @Override
+    public void stubAuthEndpoint(int statusCode) {
+        authProfile = MockProfile.constant(FaultProfile.healthy(statusCode));
+    }
+
+    @Override
+    public void stubDoActionEndpoint(int statusCode) {
+        actionProfile = MockProfile.constant(FaultProfile.healthy(statusCode));
+    }
+
+    @Override
+    public void stubAuthEndpoint(MockProfile profile) {
+        authProfile = profile;
+    }
+
+    @Override
+    public void stubDoActionEndpoint(MockProfile profile) {
+        actionProfile = profile;
+    }
+
+    @Override
+    public void stubAuthEndpoint(String token, int statusCode) {
+        authTokenStatuses.put(token, statusCode);
+    }
+
+    @Override
+    public void stubDoActionEndpoint(String token, int statusCode) {
+        actionTokenStatuses.put(token, statusCode);
+    }
+
+    @Override
+    public void removeTokenStubs(String token) {
+        authTokenStatuses.remove(token);
+        actionTokenStatuses.remove(token);
+    }
+
+    @Override
+    public CallCounters getCallCounters() {
+        return callCounters;
+    }
+
+    private void respond(HttpExchange exchange, MockEndpoint endpoint, MockProfile profile,
+                         Map<String, Integer> tokenStatuses) throws IOException {
+        String token = null;
+        try {
+            if (tokenStatuses.isEmpty() && !callCounters.isTrackingTokens()) {
+                exchange.getRequestBody().transferTo(DISCARD);
+            } else {
+                token = FormParams.token(exchange.getRequestBody().readAllBytes());
+            }
+        } catch (IOException e) {
+            exchange.close();
+            throw e;
+        }
+        callCounters.hit(endpoint, token);
+        Integer tokenStatus = token == null || tokenStatuses.isEmpty() ? null : tokenStatuses.get(token);
+
+        FaultProfile.Outcome outcome = tokenStatus == null ? profile.next() : new FaultProfile.Outcome(tokenStatus, 0);
+        if (outcome.delayMillis() == 0) {
+            send(exchange, outcome.statusCode());
+            return;
+        }
+        delayedResponses.schedule(() -> {
+            try {
+                send(exchange, outcome.statusCode());
+            } catch (IOException e) {
+                // Клиент не дождался ответа
+            }
+        }, outcome.delayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void send(HttpExchange exchange, int statusCode) throws IOException {
+        try (exchange) {
+            exchange.sendResponseHeaders(statusCode, -1);
+        }
+    }
+}
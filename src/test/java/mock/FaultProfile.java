@@ -0,0 +1,78 @@
+package mock;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Поведение эндпоинта мока на одном участке профиля: статус, задержка, доля ошибок и редкие зависания.
+ *
+ * @param errorPercent доля ответов со статусом {@code errorStatus}, в процентах
+ * @param stallPercent доля ответов, задержанных на {@code stallMillis} вместо обычной задержки, в процентах
+ */
+public record FaultProfile(int statusCode, LatencyDistribution latency, double errorPercent, int errorStatus,
+                           double stallPercent, long stallMillis) {
+
+    public static FaultProfile healthy(int statusCode) {
+        return new FaultProfile(statusCode, LatencyDistribution.NONE, 0, 500, 0, 0);
+    }
+
+    public Outcome next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int status = errorPercent > 0 && random.nextDouble(100) < errorPercent ? errorStatus : statusCode;
+        long delay = stallPercent > 0 && random.nextDouble(100) < stallPercent ? stallMillis : latency.sampleMillis();
+        return new Outcome(status, Math.max(0, delay));
+    }
+
+    /**
+     * Разбирает опции через запятую: {@code status=200}, {@code latency=lognormal(20,500)},
+     * {@code errors=5%} или {@code errors=5%@503}, {@code stall=0.1%x5000}.
+     */
+    public static FaultProfile parse(String definition) {
+        int statusCode = 200;
+        LatencyDistribution latency = LatencyDistribution.NONE;
+        double errorPercent = 0;
+        int errorStatus = 500;
+        double stallPercent = 0;
+        long stallMillis = 0;
+        for (String option : MockProfile.splitTopLevel(definition, ',')) {
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid mock profile option: " + option);
+            }
+            String name = option.substring(0, separator).strip();
+            String value = option.substring(separator + 1).strip();
+            try {
+                switch (name) {
+                    case "status" -> statusCode = Integer.parseInt(value);
+                    case "latency" -> latency = LatencyDistribution.parse(value);
+                    case "errors" -> {
+                        String[] parts = value.split("@");
+                        errorPercent = percent(parts[0]);
+                        if (parts.length > 1) {
+                            errorStatus = Integer.parseInt(parts[1].strip());
+                        }
+                    }
+                    case "stall" -> {
+                        String[] parts = value.split("x");
+                        if (parts.length != 2) {
+                            throw new IllegalArgumentException("Invalid stall, expected <percent>%x<millis>: " + value);
+                        }
+                        stallPercent = percent(parts[0]);
+                        stallMillis = Long.parseLong(parts[1].strip());
+                    }
+                    default -> throw new IllegalArgumentException("Unknown mock profile option: " + name);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid mock profile option: " + option, e);
+            }
+        }
+        return new FaultProfile(statusCode, latency, errorPercent, errorStatus, stallPercent, stallMillis);
+    }
+
+    private static double percent(String value) {
+        String trimmed = value.strip();
+        return Double.parseDouble(trimmed.endsWith("%") ? trimmed.substring(0, trimmed.length() - 1) : trimmed);
+    }
+
+    public record Outcome(int statusCode, long delayMillis) {
+    }
+}
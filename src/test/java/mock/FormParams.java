@@ -0,0 +1,41 @@
+package mock;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+final class FormParams {
+    private static final byte[] TOKEN_KEY = "token=".getBytes(StandardCharsets.US_ASCII);
+
+    private FormParams() {
+    }
+
+    static String token(byte[] body) {
+        int start = indexOfParam(body);
+        if (start < 0) {
+            return null;
+        }
+        int end = start;
+        while (end < body.length && body[end] != '&') {
+            end++;
+        }
+        return URLDecoder.decode(new String(body, start, end - start, StandardCharsets.US_ASCII), StandardCharsets.UTF_8);
+    }
+
+    private static int indexOfParam(byte[] body) {
+        for (int i = 0; i + TOKEN_KEY.length <= body.length; i++) {
+            if ((i == 0 || body[i - 1] == '&') && matchesKey(body, i)) {
+                return i + TOKEN_KEY.length;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matchesKey(byte[] body, int offset) {
+        for (int i = 0; i < TOKEN_KEY.length; i++) {
+            if (body[offset + i] != TOKEN_KEY[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
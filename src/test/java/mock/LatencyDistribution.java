@@ -0,0 +1,130 @@
+package mock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Распределение задержки ответа мока в миллисекундах.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    /** Квантиль стандартного нормального распределения для p99. */
+    double Z_99 = 2.326348;
+
+    LatencyDistribution NONE = () -> 0;
+
+    long sampleMillis();
+
+    static LatencyDistribution fixed(long millis) {
+        return () -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid uniform latency: " + minMillis + ".." + maxMillis);
+        }
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * Логнормальное распределение, заданное медианой и p99.
+     */
+    static LatencyDistribution lognormal(double medianMillis, double p99Millis) {
+        if (medianMillis <= 0 || p99Millis < medianMillis) {
+            throw new IllegalArgumentException("Invalid lognormal latency: median=" + medianMillis + ", p99=" + p99Millis);
+        }
+        double mu = Math.log(medianMillis);
+        double sigma = (Math.log(p99Millis) - mu) / Z_99;
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    /**
+     * Эмпирическое распределение по записанной гистограмме: значения и их частоты.
+     */
+    static LatencyDistribution histogram(long[] valuesMillis, long[] counts) {
+        if (valuesMillis.length == 0 || valuesMillis.length != counts.length) {
+            throw new IllegalArgumentException("Histogram values and counts must be non-empty and of equal length");
+        }
+        // Пустые корзины отбрасываются: накопленные счетчики должны строго расти, иначе binarySearch
+        // может попасть в корзину с нулевой частотой
+        long[] values = new long[counts.length];
+        long[] cumulative = new long[counts.length];
+        int buckets = 0;
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] < 0) {
+                throw new IllegalArgumentException("Negative histogram count: " + counts[i]);
+            }
+            if (counts[i] > 0) {
+                total += counts[i];
+                values[buckets] = valuesMillis[i];
+                cumulative[buckets] = total;
+                buckets++;
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Histogram is empty");
+        }
+        long totalCount = total;
+        long[] bucketValues = Arrays.copyOf(values, buckets);
+        long[] bucketCumulative = Arrays.copyOf(cumulative, buckets);
+        return () -> {
+            int index = Arrays.binarySearch(bucketCumulative, ThreadLocalRandom.current().nextLong(totalCount) + 1);
+            return bucketValues[index >= 0 ? index : -index - 1];
+        };
+    }
+
+    /**
+     * Гистограмма из файла: строки {@code задержка_мс количество}, пустые строки и строки с {@code #} пропускаются.
+     */
+    static LatencyDistribution histogram(Path file) {
+        List<long[]> rows = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("[\\s,;]+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid histogram line in " + file + ": " + line);
+                }
+                rows.add(new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])});
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read latency histogram " + file, e);
+        }
+        return histogram(rows.stream().mapToLong(row -> row[0]).toArray(), rows.stream().mapToLong(row -> row[1]).toArray());
+    }
+
+    /**
+     * Разбирает {@code fixed(мс)}, {@code uniform(мин,макс)}, {@code lognormal(медиана,p99)} или {@code histogram(файл)}.
+     */
+    static LatencyDistribution parse(String definition) {
+        String value = definition.strip();
+        int open = value.indexOf('(');
+        if (open < 0 || !value.endsWith(")")) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + definition);
+        }
+        String type = value.substring(0, open).strip();
+        String argument = value.substring(open + 1, value.length() - 1).strip();
+        String[] args = argument.split("\\s*,\\s*");
+        try {
+            return switch (type) {
+                case "fixed" -> fixed(Long.parseLong(argument));
+                case "uniform" -> uniform(Long.parseLong(args[0]), Long.parseLong(args[1]));
+                case "lognormal" -> lognormal(Double.parseDouble(args[0]), Double.parseDouble(args[1]));
+                case "histogram" -> histogram(Path.of(argument));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + type);
+            };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + definition, e);
+        }
+    }
+}
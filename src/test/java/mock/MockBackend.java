@@ -0,0 +1,38 @@
+package mock;
+
+public interface MockBackend {
+
+    void start();
+
+    void stop();
+
+    void stubAuthEndpoint(int statusCode);
+
+    void stubDoActionEndpoint(int statusCode);
+
+    /**
+     * Общий стаб с задержками, ошибками и участками по времени из профиля.
+     */
+    void stubAuthEndpoint(MockProfile profile);
+
+    void stubDoActionEndpoint(MockProfile profile);
+
+    void stubAuthEndpoint(String token, int statusCode);
+
+    void stubDoActionEndpoint(String token, int statusCode);
+
+    void removeTokenStubs(String token);
+
+    /**
+     * Счетчики всех вызовов мока, включая отвеченные общими стабами.
+     */
+    CallCounters getCallCounters();
+
+    static MockBackend forName(String name, int port) {
+        return switch (name) {
+            case "wiremock" -> new WireMockBackend(port);
+            case "fast" -> new FastMockBackend(port);
+            default -> throw new IllegalArgumentException("Unknown mock backend: " + name);
+        };
+    }
+}
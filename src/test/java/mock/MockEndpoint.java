@@ -0,0 +1,41 @@
+package mock;
+
+import config.TestConfig;
+
+/**
+ * Эндпоинты внешнего сервиса, которые вызывает приложение.
+ */
+public enum MockEndpoint {
+    AUTH(TestConfig.getMockAuthEndpoint()),
+    DO_ACTION(TestConfig.getMockActionEndpoint());
+
+    private static final MockEndpoint[] VALUES = values();
+
+    private final String path;
+
+    MockEndpoint(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return эндпоинт по пути запроса (query-параметры не учитываются) или null
+     */
+    public static MockEndpoint forPath(String url) {
+        int query = url.indexOf('?');
+        String path = query < 0 ? url : url.substring(0, query);
+        for (MockEndpoint endpoint : VALUES) {
+            if (endpoint.path.equals(path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+}
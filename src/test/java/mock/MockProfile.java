@@ -0,0 +1,95 @@
+package mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Профиль эндпоинта мока из последовательных участков {@link FaultProfile}. Время отсчитывается от применения
+ * профиля; последний участок действует до конца прогона.
+ * <p>
+ * Формат: участки через {@code ;}, у каждого необязательная длительность {@code 60s:} и опции {@link FaultProfile#parse},
+ * например {@code 60s:latency=lognormal(5,20);30s:latency=lognormal(50,2000),errors=2%;latency=fixed(5)}.
+ */
+public class MockProfile {
+    private final List<Phase> phases;
+    private final long startNanos;
+
+    private MockProfile(List<Phase> phases, long startNanos) {
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException("Mock profile has no phases");
+        }
+        this.phases = List.copyOf(phases);
+        this.startNanos = startNanos;
+    }
+
+    public static MockProfile constant(FaultProfile profile) {
+        return new MockProfile(List.of(new Phase(Long.MAX_VALUE, profile)), System.nanoTime());
+    }
+
+    public static MockProfile parse(String definition) {
+        List<Phase> phases = new ArrayList<>();
+        for (String phase : splitTopLevel(definition, ';')) {
+            long durationNanos = Long.MAX_VALUE;
+            String options = phase;
+            int colon = phase.indexOf(':');
+            if (colon > 0 && phase.substring(0, colon).strip().matches("\\d+s")) {
+                String seconds = phase.substring(0, colon).strip();
+                durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(seconds.substring(0, seconds.length() - 1)));
+                options = phase.substring(colon + 1);
+            }
+            phases.add(new Phase(durationNanos, FaultProfile.parse(options)));
+        }
+        return new MockProfile(phases, System.nanoTime());
+    }
+
+    /**
+     * Копия профиля, время которой отсчитывается от текущего момента.
+     */
+    public MockProfile restart() {
+        return new MockProfile(phases, System.nanoTime());
+    }
+
+    public FaultProfile.Outcome next() {
+        return current().next();
+    }
+
+    public FaultProfile current() {
+        long elapsed = System.nanoTime() - startNanos;
+        for (Phase phase : phases) {
+            if (elapsed < phase.durationNanos()) {
+                return phase.profile();
+            }
+            elapsed -= phase.durationNanos();
+        }
+        return phases.get(phases.size() - 1).profile();
+    }
+
+    static List<String> splitTopLevel(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == separator && depth == 0) {
+                addPart(parts, value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        addPart(parts, value.substring(start));
+        return parts;
+    }
+
+    private static void addPart(List<String> parts, String part) {
+        if (!part.isBlank()) {
+            parts.add(part.strip());
+        }
+    }
+
+    private record Phase(long durationNanos, FaultProfile profile) {
+    }
+}
@@ -1,32 +1,94 @@
 package mock;
 
-import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.client.WireMock;
 import config.TestConfig;
 
-import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import java.util.HashSet;
+import java.util.Set;
 
 public class MockService {
-    private static WireMockServer wireMockServer;
-    private static final int PORT = TestConfig.getMockPort();
-    private static final String AUTH_ENDPOINT = TestConfig.getMockAuthEndpoint();
-    private static final String ACTION_ENDPOINT = TestConfig.getMockActionEndpoint();
+    private static final ThreadLocal<Set<String>> stubbedTokens = ThreadLocal.withInitial(HashSet::new);
+    private static volatile MockBackend backend;
 
     public static void start() {
-        if (wireMockServer == null) {
-            wireMockServer = new WireMockServer(wireMockConfig().port(PORT));
-            wireMockServer.start();
-            WireMock.configureFor("localhost", PORT);
+        start(TestConfig.getMockBackend());
+    }
+
+    public static synchronized void start(String backendName) {
+        if (backend == null) {
+            backend = MockBackend.forName(backendName, TestConfig.getMockPort());
+            backend.start();
+        }
+    }
+
+    public static synchronized void stop() {
+        if (backend != null) {
+            backend.stop();
+            backend = null;
         }
     }
 
     public static void stubAuthEndpoint(int statusCode) {
-        WireMock.stubFor(WireMock.post(WireMock.urlEqualTo(AUTH_ENDPOINT))
-                .willReturn(WireMock.aResponse().withStatus(statusCode)));
+        backend.stubAuthEndpoint(statusCode);
     }
 
     public static void stubDoActionEndpoint(int statusCode) {
-        WireMock.stubFor(WireMock.post(WireMock.urlEqualTo(ACTION_ENDPOINT))
-                .willReturn(WireMock.aResponse().withStatus(statusCode)));
+        backend.stubDoActionEndpoint(statusCode);
+    }
+
+    public static void stubAuthEndpoint(MockProfile profile) {
+        backend.stubAuthEndpoint(profile.restart());
+    }
+
+    public static void stubDoActionEndpoint(MockProfile profile) {
+        backend.stubDoActionEndpoint(profile.restart());
+    }
+
+    /**
+     * Применяет профили из {@code mock.auth.profile} и {@code mock.action.profile}, если они заданы.
+     */
+    public static void applyConfiguredProfiles() {
+        String authProfile = TestConfig.getMockAuthProfile();
+        if (!authProfile.isBlank()) {
+            stubAuthEndpoint(MockProfile.parse(authProfile));
+        }
+        String actionProfile = TestConfig.getMockActionProfile();
+        if (!actionProfile.isBlank()) {
+            stubDoActionEndpoint(MockProfile.parse(actionProfile));
+        }
+    }
+
+    public static void stubAuthEndpoint(String token, int statusCode) {
+        stubbedTokens.get().add(token);
+        backend.stubAuthEndpoint(token, statusCode);
+    }
+
+    public static void stubDoActionEndpoint(String token, int statusCode) {
+        stubbedTokens.get().add(token);
+        backend.stubDoActionEndpoint(token, statusCode);
+    }
+
+    /**
+     * @return сколько раз приложение вызвало эндпоинт мока с момента старта
+     */
+    public static long getCalls(MockEndpoint endpoint) {
+        return backend.getCallCounters().getCalls(endpoint);
+    }
+
+    public static long getCalls(String token, MockEndpoint endpoint) {
+        return backend.getCallCounters().getCalls(token, endpoint);
+    }
+
+    /**
+     * @return счетчики вызовов или null, если мок не запущен
+     */
+    public static CallCounters getCallCounters() {
+        MockBackend current = backend;
+        return current == null ? null : current.getCallCounters();
+    }
+
+    public static void resetTokenStubs() {
+        Set<String> tokens = stubbedTokens.get();
+        tokens.forEach(backend::removeTokenStubs);
+        tokens.clear();
     }
 }
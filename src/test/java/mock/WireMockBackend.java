@@ -0,0 +1,185 @@
+package mock;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import config.TestConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Стабы по токену матчатся по телу запроса и имеют приоритет выше общих,
+ * поэтому тесты с разными токенами не мешают друг другу при параллельном запуске.
+ * Все вызовы идут через {@link WireMockServer}: статический клиент {@link WireMock} хранит адрес в ThreadLocal.
+ * Стабы с профилем получают статус и задержку на каждый запрос от {@link ProfileTransformer}.
+ * Вызовы считаются слушателем запросов до отправки ответа, независимо от журнала WireMock.
+ */
+public class WireMockBackend implements MockBackend {
+    private static final String AUTH_ENDPOINT = TestConfig.getMockAuthEndpoint();
+    private static final String ACTION_ENDPOINT = TestConfig.getMockActionEndpoint();
+    private static final int TOKEN_STUB_PRIORITY = 1;
+    private static final int DEFAULT_STUB_PRIORITY = 10;
+
+    private final int port;
+    private final Map<String, StubMapping> defaultStubs = new ConcurrentHashMap<>();
+    private final Map<String, List<StubMapping>> tokenStubs = new ConcurrentHashMap<>();
+    private final ProfileTransformer profileTransformer = new ProfileTransformer();
+    private final CallCounters callCounters = new CallCounters(TestConfig.getMockTokenCountersMax());
+    private WireMockServer wireMockServer;
+
+    public WireMockBackend(int port) {
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        WireMockConfiguration configuration = wireMockConfig().port(port).extensions(profileTransformer)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(TestConfig.getMockAsyncResponseThreads());
+        if (!TestConfig.isMockJournalEnabled()) {
+            configuration.disableRequestJournal();
+        }
+        wireMockServer = new WireMockServer(configuration);
+        wireMockServer.addMockServiceRequestListener((request, response) -> countCall(request));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", port);
+    }
+
+    @Override
+    public void stop() {
+        wireMockServer.stop();
+    }
+
+    @Override
+    public void stubAuthEndpoint(int statusCode) {
+        stubDefault(AUTH_ENDPOINT, statusCode);
+    }
+
+    @Override
+    public void stubDoActionEndpoint(int statusCode) {
+        stubDefault(ACTION_ENDPOINT, statusCode);
+    }
+
+    @Override
+    public void stubAuthEndpoint(MockProfile profile) {
+        stubProfile(AUTH_ENDPOINT, profile);
+    }
+
+    @Override
+    public void stubDoActionEndpoint(MockProfile profile) {
+        stubProfile(ACTION_ENDPOINT, profile);
+    }
+
+    @Override
+    public void stubAuthEndpoint(String token, int statusCode) {
+        stubForToken(AUTH_ENDPOINT, token, statusCode);
+    }
+
+    @Override
+    public void stubDoActionEndpoint(String token, int statusCode) {
+        stubForToken(ACTION_ENDPOINT, token, statusCode);
+    }
+
+    @Override
+    public void removeTokenStubs(String token) {
+        List<StubMapping> stubs = tokenStubs.remove(token);
+        if (stubs != null) {
+            stubs.forEach(wireMockServer::removeStub);
+        }
+    }
+
+    @Override
+    public CallCounters getCallCounters() {
+        return callCounters;
+    }
+
+    private void countCall(Request request) {
+        if (!RequestMethod.POST.equals(request.getMethod())) {
+            return;
+        }
+        MockEndpoint endpoint = MockEndpoint.forPath(request.getUrl());
+        if (endpoint != null) {
+            callCounters.hit(endpoint, callCounters.isTrackingTokens() ? FormParams.token(request.getBody()) : null);
+        }
+    }
+
+    private void stubDefault(String endpoint, int statusCode) {
+        replaceDefault(endpoint, WireMock.aResponse().withStatus(statusCode));
+    }
+
+    private void stubProfile(String endpoint, MockProfile profile) {
+        profileTransformer.profiles.put(endpoint, profile);
+        replaceDefault(endpoint, WireMock.aResponse()
+                .withTransformers(ProfileTransformer.NAME)
+                .withTransformerParameter(ProfileTransformer.ENDPOINT_PARAMETER, endpoint));
+    }
+
+    private synchronized void replaceDefault(String endpoint, ResponseDefinitionBuilder response) {
+        StubMapping previous = defaultStubs.put(endpoint, wireMockServer.stubFor(
+                post(endpoint).atPriority(DEFAULT_STUB_PRIORITY).willReturn(response)));
+        if (previous != null) {
+            wireMockServer.removeStub(previous);
+        }
+    }
+
+    private void stubForToken(String endpoint, String token, int statusCode) {
+        StubMapping mapping = wireMockServer.stubFor(
+                post(endpoint).atPriority(TOKEN_STUB_PRIORITY)
+                        .withRequestBody(WireMock.containing("token=" + token))
+                        .willReturn(WireMock.aResponse().withStatus(statusCode)));
+        tokenStubs.computeIfAbsent(token, key -> new CopyOnWriteArrayList<>()).add(mapping);
+    }
+
+    private static MappingBuilder post(String endpoint) {
+        return WireMock.post(WireMock.urlEqualTo(endpoint));
+    }
+
+    /**
+     * Подставляет статус и задержку из профиля эндпоинта; задержку WireMock выдерживает без блокировки потока Jetty
+     * (асинхронные ответы включены в {@link #start()}).
+     */
+    private static final class ProfileTransformer extends ResponseDefinitionTransformer {
+        private static final String NAME = "mock-profile";
+        private static final String ENDPOINT_PARAMETER = "endpoint";
+
+        private final Map<String, MockProfile> profiles = new ConcurrentHashMap<>();
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                            FileSource files, Parameters parameters) {
+            MockProfile profile = profiles.get(parameters.getString(ENDPOINT_PARAMETER));
+            if (profile == null) {
+                return responseDefinition;
+            }
+            FaultProfile.Outcome outcome = profile.next();
+            return ResponseDefinitionBuilder.like(responseDefinition)
+                    .withStatus(outcome.statusCode())
+                    .withFixedDelay(outcome.delayMillis() > 0 ? (int) Math.min(outcome.delayMillis(), Integer.MAX_VALUE) : null)
+                    .build();
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package replay;
+
+/**
+ * Одна строка записи трафика в формате JSONL:
+ * {@code {"ts":1697630000123456,"token":"...","action":"LOGIN","apiKey":true,"status":200}}.
+ *
+ * @param timestampMicros время отправки, микросекунды от эпохи
+ * @param statusCode      полученный при записи статус; -1 — сбой транспорта
+ */
+public record TrafficRecord(long timestampMicros, String token, String action, boolean apiKey, int statusCode) {
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"ts\":").append(timestampMicros).append(",\"token\":");
+        appendString(json, token);
+        json.append(",\"action\":");
+        appendString(json, action);
+        json.append(",\"apiKey\":").append(apiKey).append(",\"status\":").append(statusCode).append('}');
+        return json.toString();
+    }
+
+    /**
+     * Разбирает плоский JSON-объект записи; неизвестные поля пропускаются.
+     *
+     * @throws IllegalArgumentException если строка не является записью
+     */
+    public static TrafficRecord parse(String line) {
+        Parser parser = new Parser(line);
+        long timestamp = -1;
+        String token = null;
+        String action = null;
+        boolean apiKey = true;
+        int status = Integer.MIN_VALUE;
+
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String key = parser.readString();
+                parser.expect(':');
+                switch (key) {
+                    case "ts" -> timestamp = parser.readLong();
+                    case "token" -> token = parser.readNullableString();
+                    case "action" -> action = parser.readNullableString();
+                    case "apiKey" -> apiKey = parser.readBoolean();
+                    case "status" -> status = (int) parser.readLong();
+                    default -> parser.skipValue();
+                }
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        if (timestamp < 0 || status == Integer.MIN_VALUE) {
+            throw new IllegalArgumentException("Record must have ts and status: " + line);
+        }
+        return new TrafficRecord(timestamp, token, action, apiKey, status);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static final class Parser {
+        private final String json;
+        private int pos;
+
+        private Parser(String json) {
+            this.json = json;
+        }
+
+        private void expect(char expected) {
+            if (!consume(expected)) {
+                throw error("'" + expected + "' expected");
+            }
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (pos < json.length() && json.charAt(pos) == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private String readNullableString() {
+            skipWhitespace();
+            if (json.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return readString();
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < json.length()) {
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= json.length()) {
+                    break;
+                }
+                char escape = json.charAt(pos++);
+                switch (escape) {
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > json.length()) {
+                            throw error("invalid unicode escape");
+                        }
+                        value.append((char) Integer.parseInt(json, pos, pos + 4, 16));
+                        pos += 4;
+                    }
+                    default -> value.append(escape);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private long readLong() {
+            skipWhitespace();
+            int start = pos;
+            if (pos < json.length() && json.charAt(pos) == '-') {
+                pos++;
+            }
+            while (pos < json.length() && Character.isDigit(json.charAt(pos))) {
+                pos++;
+            }
+            try {
+                return Long.parseLong(json, start, pos, 10);
+            } catch (NumberFormatException e) {
+                throw error("number expected");
+            }
+        }
+
+        private boolean readBoolean() {
+            skipWhitespace();
+            if (json.startsWith("true", pos)) {
+                pos += 4;
+                return true;
+            }
+            if (json.startsWith("false", pos)) {
+                pos += 5;
+                return false;
+            }
+            throw error("boolean expected");
+        }
+
+        private void skipValue() {
+            skipWhitespace();
+            if (pos < json.length() && json.charAt(pos) == '"') {
+                readString();
+                return;
+            }
+            while (pos < json.length() && ",}".indexOf(json.charAt(pos)) < 0) {
+                pos++;
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid record at position " + pos + " (" + message + "): " + json);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package replay;
+
+import config.TestConfig;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Запись трафика {@link clients.ApplicationClient} в JSONL-файл {@code record.file} для последующего
+ * воспроизведения {@link TrafficReplayer}. Без {@code record.file} запись выключена и ничего не стоит.
+ */
+public final class TrafficRecorder {
+    private static final Logger logger = Logger.getLogger(TrafficRecorder.class.getName());
+    private static final String FILE = TestConfig.getProperty("record.file", "");
+    private static final boolean ENABLED = !FILE.isBlank();
+
+    private TrafficRecorder() {
+    }
+
+    private static class WriterHolder {
+        private static final ReentrantLock LOCK = new ReentrantLock();
+        private static final BufferedWriter WRITER = open();
+
+        private static BufferedWriter open() {
+            try {
+                Path path = Path.of(FILE);
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                BufferedWriter writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                Runtime.getRuntime().addShutdownHook(new Thread(WriterHolder::close, "traffic-recorder-close"));
+                logger.info("Recording traffic to " + path.toAbsolutePath());
+                return writer;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open traffic record file " + FILE, e);
+            }
+        }
+
+        private static void close() {
+            LOCK.lock();
+            try {
+                WRITER.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close traffic record file: " + e.getMessage());
+            } finally {
+                LOCK.unlock();
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Текущее время в микросекундах от эпохи, для отметки момента отправки.
+     */
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    public static void record(long timestampMicros, String token, String action, boolean apiKey, int statusCode) {
+        if (!ENABLED) {
+            return;
+        }
+        String line = new TrafficRecord(timestampMicros, token, action, apiKey, statusCode).toJson();
+        WriterHolder.LOCK.lock();
+        try {
+            WriterHolder.WRITER.write(line);
+            WriterHolder.WRITER.newLine();
+        } catch (IOException e) {
+            logger.warning("Failed to record request: " + e.getMessage());
+        } finally {
+            WriterHolder.LOCK.unlock();
+        }
+    }
+
+    public static void flush() {
+        if (!ENABLED) {
+            return;
+        }
+        WriterHolder.LOCK.lock();
+        try {
+            WriterHolder.WRITER.flush();
+        } catch (IOException e) {
+            logger.warning("Failed to flush traffic record file: " + e.getMessage());
+        } finally {
+            WriterHolder.LOCK.unlock();
+        }
+    }
+}
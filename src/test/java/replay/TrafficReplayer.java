@@ -0,0 +1,217 @@
+package replay;
+
+import clients.ApplicationClient;
+import config.TestConfig;
+import io.restassured.response.Response;
+import load.ActionStats;
+import load.LoadReport;
+import load.LoadRunner;
+import metrics.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Воспроизведение записанного трафика через {@link ApplicationClient}. Файл читается потоково, запросы
+ * раскладываются по дорожкам по хешу токена: дорожка выполняет свои запросы строго по очереди, поэтому
+ * порядок запросов одного токена сохраняется, а разные токены идут параллельно. Очереди дорожек ограничены,
+ * так что объем памяти не зависит от размера записи.
+ * <p>
+ * Скорость {@code replay.speed}: 1 — исходные интервалы, N — в N раз быстрее, 0 — без пауз.
+ * Задержка отсчитывается от запланированного момента отправки (при скорости 0 — от фактической),
+ * статус сверяется с записанным.
+ * <p>
+ * Запуск: {@code mvn -Preplay -Dreplay.file=target/traffic.jsonl -Dreplay.speed=2}
+ */
+public class TrafficReplayer {
+    private static final double DEFAULT_SPEED = 1;
+    private static final int DEFAULT_LANES = 64;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1_024;
+    private static final int PRINTED_MISMATCHES = 20;
+    private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+    private static final Pending END = new Pending(null, NOT_SCHEDULED);
+
+    private final ApplicationClient client;
+    private final double speed;
+    private final List<BlockingQueue<Pending>> lanes = new ArrayList<>();
+    private final Map<String, ActionStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> mismatches = new ConcurrentHashMap<>();
+    private final LatencyHistogram sendLag = new LatencyHistogram();
+    private final BufferedWriter mismatchLog;
+    private final List<String> printedMismatches = new ArrayList<>();
+    private long replayed;
+    private long malformed;
+
+    private record Pending(TrafficRecord record, long intendedStartNanos) {
+    }
+
+    public TrafficReplayer(ApplicationClient client, double speed, int laneCount, int queueCapacity,
+                           BufferedWriter mismatchLog) {
+        this.client = client;
+        this.speed = speed;
+        this.mismatchLog = mismatchLog;
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String file = TestConfig.getProperty("replay.file", "");
+        if (file.isBlank()) {
+            throw new IllegalArgumentException("replay.file is required");
+        }
+        double speed = TestConfig.getDoubleProperty("replay.speed", DEFAULT_SPEED);
+        int laneCount = Math.max(1, TestConfig.getIntProperty("replay.lanes", DEFAULT_LANES));
+        Path mismatchesFile = Path.of(TestConfig.getProperty("replay.mismatches.file", "target/replay/mismatches.txt"));
+        System.out.printf("Replaying %s at %s with %d lanes%n", file, speed > 0 ? speed + "x" : "max speed", laneCount);
+
+        Files.createDirectories(mismatchesFile.toAbsolutePath().getParent());
+        LoadRunner.startMock(TestConfig.getProperty("replay.mock.backend", "fast"));
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file));
+             BufferedWriter mismatchLog = Files.newBufferedWriter(mismatchesFile)) {
+            TrafficReplayer replayer = new TrafficReplayer(new ApplicationClient(), speed, laneCount,
+                    TestConfig.getIntProperty("replay.queue.capacity", DEFAULT_QUEUE_CAPACITY), mismatchLog);
+            double elapsedSeconds = replayer.replay(reader);
+            replayer.printReport(elapsedSeconds, mismatchesFile);
+        } finally {
+            LoadRunner.stopMock();
+        }
+    }
+
+    /**
+     * @return длительность воспроизведения в секундах
+     */
+    public double replay(BufferedReader reader) throws IOException, InterruptedException {
+        List<Thread> workers = new ArrayList<>(lanes.size());
+        for (int i = 0; i < lanes.size(); i++) {
+            BlockingQueue<Pending> lane = lanes.get(i);
+            workers.add(Thread.ofVirtual().name("replay-lane-" + i).start(() -> runLane(lane)));
+        }
+
+        long start = System.nanoTime();
+        long firstTimestamp = Long.MIN_VALUE;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                TrafficRecord record;
+                try {
+                    record = TrafficRecord.parse(line);
+                } catch (IllegalArgumentException e) {
+                    malformed++;
+                    continue;
+                }
+                if (firstTimestamp == Long.MIN_VALUE) {
+                    firstTimestamp = record.timestampMicros();
+                }
+                long intendedStart = NOT_SCHEDULED;
+                if (speed > 0) {
+                    long offsetNanos = (long) ((record.timestampMicros() - firstTimestamp) * 1_000 / speed);
+                    intendedStart = start + Math.max(0, offsetNanos);
+                    long delay = intendedStart - System.nanoTime();
+                    if (delay > 0) {
+                        TimeUnit.NANOSECONDS.sleep(delay);
+                    }
+                }
+                lanes.get(Math.floorMod(laneHash(record.token()), lanes.size())).put(new Pending(record, intendedStart));
+                replayed++;
+            }
+        } finally {
+            for (BlockingQueue<Pending> lane : lanes) {
+                lane.put(END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void runLane(BlockingQueue<Pending> lane) {
+        try {
+            Pending pending;
+            while ((pending = lane.take()) != END) {
+                execute(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Pending pending) {
+        TrafficRecord record = pending.record();
+        long begin = System.nanoTime();
+        // Без пауз расписания нет: задержка считается от фактической отправки
+        long intendedStart = pending.intendedStartNanos() == NOT_SCHEDULED ? begin : pending.intendedStartNanos();
+        sendLag.recordNanos(begin - intendedStart);
+        int statusCode;
+        try {
+            Response response = record.apiKey()
+                    ? client.sendRequest(record.token(), record.action())
+                    : client.sendRequestWithoutApiKey(record.token(), record.action());
+            statusCode = response.statusCode();
+        } catch (RuntimeException e) {
+            statusCode = -1;
+        }
+        long latencyNanos = System.nanoTime() - intendedStart;
+        boolean matched = statusCode == record.statusCode();
+        String action = String.valueOf(record.action());
+        stats.computeIfAbsent(action, ActionStats::new).record(latencyNanos, matched);
+        if (!matched) {
+            mismatches.computeIfAbsent(action + " " + record.statusCode() + " -> " + statusCode, key -> new LongAdder())
+                    .increment();
+            logMismatch(String.format("expected %d but was %d: %s", record.statusCode(), statusCode, record.toJson()));
+        }
+    }
+
+    private synchronized void logMismatch(String line) {
+        try {
+            mismatchLog.write(line);
+            mismatchLog.newLine();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write mismatch", e);
+        }
+        if (printedMismatches.size() < PRINTED_MISMATCHES) {
+            printedMismatches.add(line);
+        }
+    }
+
+    private static int laneHash(String token) {
+        if (token == null) {
+            return 0;
+        }
+        int hash = token.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    public synchronized void printReport(double elapsedSeconds, Path mismatchesFile) {
+        System.out.printf("%nReplayed %d requests in %.1fs, malformed lines skipped: %d%n", replayed, elapsedSeconds, malformed);
+        System.out.println("Latency from scheduled send time (errors = status mismatches):");
+        LoadReport.print(System.out, new TreeMap<>(stats).values(), elapsedSeconds);
+        System.out.printf("Send lag behind schedule: p50=%.2fms p99=%.2fms max=%.2fms%n",
+                sendLag.getValueAtPercentile(50) / 1_000.0, sendLag.getValueAtPercentile(99) / 1_000.0,
+                sendLag.getMaxMicros() / 1_000.0);
+        if (mismatches.isEmpty()) {
+            System.out.println("Status mismatches: none");
+            return;
+        }
+        System.out.println("Status mismatches (action expected -> actual):");
+        new TreeMap<>(mismatches).forEach((key, count) -> System.out.printf("  %-30s %d%n", key, count.sum()));
+        printedMismatches.forEach(System.out::println);
+        System.out.println("All mismatches: " + mismatchesFile.toAbsolutePath());
+    }
+}
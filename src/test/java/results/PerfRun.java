@@ -0,0 +1,48 @@
+package results;
+
+import config.TestConfig;
+import metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * Накопление итога текущего прогона: {@link steps.LatencyAssertion} и нагрузочный режим добавляют
+ * измерения, в конце прогона итог пишется в {@code perf.run.dir/<источник>.perf} для {@link RegressionGate}.
+ */
+public final class PerfRun {
+    private static final Logger logger = Logger.getLogger(PerfRun.class.getName());
+    private static final PerfSummary CURRENT = new PerfSummary();
+
+    private PerfRun() {
+    }
+
+    public static void record(String action, LatencyHistogram histogram, long errors, double elapsedSeconds) {
+        CURRENT.add(action, histogram, errors, elapsedSeconds);
+    }
+
+    /**
+     * @param source имя итога, например {@code tests} или {@code load}
+     */
+    public static void write(String source) {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        Path file = getRunDir().resolve(source + ".perf");
+        try {
+            CURRENT.write(file);
+            logger.info("Performance summary written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warning("Failed to write performance summary: " + e.getMessage());
+        }
+    }
+
+    public static Path getRunDir() {
+        return Path.of(TestConfig.getProperty("perf.run.dir", "target/perf"));
+    }
+
+    public static Path getBaselineDir() {
+        return Path.of(TestConfig.getProperty("perf.baseline.dir", "perf-baseline"));
+    }
+}
@@ -0,0 +1,118 @@
+package results;
+
+import metrics.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Итог прогона для сравнения с базовой линией: по каждому действию гистограмма задержек, число ошибок
+ * и длительность измерения (для пропускной способности).
+ * <p>
+ * Формат файла: заголовок (magic, версия, время создания), число действий, затем по действию имя,
+ * длительность в секундах, ошибки и разреженная гистограмма {@link LatencyHistogram#writeTo}.
+ */
+public class PerfSummary {
+    static final int MAGIC = 0x50455246;
+    static final int VERSION = 1;
+
+    private final Map<String, ActionResult> actions = new TreeMap<>();
+    private long createdEpochMillis = System.currentTimeMillis();
+
+    /**
+     * Результат действия; повторные измерения одного действия складываются.
+     */
+    public static final class ActionResult {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private long errors;
+        private double elapsedSeconds;
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedSeconds;
+        }
+
+        public double getThroughput() {
+            return elapsedSeconds > 0 ? histogram.getTotalCount() / elapsedSeconds : 0;
+        }
+    }
+
+    public synchronized void add(String action, LatencyHistogram histogram, long errors, double elapsedSeconds) {
+        ActionResult result = actions.computeIfAbsent(action, name -> new ActionResult());
+        result.histogram.add(histogram);
+        result.errors += errors;
+        result.elapsedSeconds += elapsedSeconds;
+    }
+
+    public synchronized Map<String, ActionResult> getActions() {
+        return Collections.unmodifiableMap(new TreeMap<>(actions));
+    }
+
+    public synchronized boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    public long getCreatedEpochMillis() {
+        return createdEpochMillis;
+    }
+
+    /**
+     * Атомарная запись: через временный файл и переименование.
+     */
+    public synchronized void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(createdEpochMillis);
+            out.writeInt(actions.size());
+            for (Map.Entry<String, ActionResult> entry : actions.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeDouble(entry.getValue().elapsedSeconds);
+                out.writeLong(entry.getValue().errors);
+                entry.getValue().histogram.writeTo(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static PerfSummary read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a performance summary: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported performance summary version " + version + ": " + file);
+            }
+            PerfSummary summary = new PerfSummary();
+            summary.createdEpochMillis = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String action = in.readUTF();
+                double elapsedSeconds = in.readDouble();
+                long errors = in.readLong();
+                summary.add(action, LatencyHistogram.readFrom(in), errors, elapsedSeconds);
+            }
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package results;
+
+import config.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+import metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Сравнение итогов прогона ({@link PerfRun}) с сохраненной базовой линией. Для каждого действия задержки
+ * сравниваются односторонним U-критерием Манна — Уитни по гистограммам (с поправкой на связи), регрессией
+ * считается значимый сдвиг ({@code perf.alpha}) с ростом p50 или p99 сверх порога, а в итоге нагрузочного
+ * прогона — и падение пропускной способности сверх порога. Действие базовой линии, которого нет в прогоне,
+ * считается пропавшим ({@code missing}) и тоже проваливает проверку. Отчет печатается, пишется
+ * в {@code perf.run.dir/regression-report.txt} и прикладывается к Allure; при регрессии прогон завершается с ошибкой.
+ * <p>
+ * Запуск: {@code mvn test && mvn -Pregression}; обновить базовую линию: {@code mvn -Pregression -Dperf.update.baseline=true}
+ */
+public class RegressionGate {
+    private static final double DEFAULT_ALPHA = 0.01;
+    private static final double DEFAULT_MAX_P50_INCREASE = 0.10;
+    private static final double DEFAULT_MAX_P99_INCREASE = 0.20;
+    private static final double DEFAULT_MAX_THROUGHPUT_DECREASE = 0.10;
+    private static final int DEFAULT_MIN_SAMPLES = 20;
+    /** Итог, в котором пропускная способность задана интенсивностью нагрузки, а не временем параллельных тестов. */
+    private static final String THROUGHPUT_SOURCE = "load";
+    private static final String ROW_FORMAT = "%-8s %-16s %8s %8s %10s %10s %8s %10s %10s %8s %9s %9s %6s  %s%n";
+
+    private final double alpha;
+    private final double maxP50Increase;
+    private final double maxP99Increase;
+    private final double maxThroughputDecrease;
+    private final int minSamples;
+
+    public RegressionGate(double alpha, double maxP50Increase, double maxP99Increase, double maxThroughputDecrease,
+                          int minSamples) {
+        this.alpha = alpha;
+        this.maxP50Increase = maxP50Increase;
+        this.maxP99Increase = maxP99Increase;
+        this.maxThroughputDecrease = maxThroughputDecrease;
+        this.minSamples = minSamples;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path runDir = PerfRun.getRunDir();
+        Path baselineDir = PerfRun.getBaselineDir();
+        List<Path> runs = new ArrayList<>();
+        if (Files.isDirectory(runDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(runDir, "*.perf")) {
+                files.forEach(runs::add);
+            }
+        }
+        runs.sort(null);
+        if (runs.isEmpty()) {
+            System.out.println("No performance summaries in " + runDir.toAbsolutePath() + ", run tests or a load run first");
+            return;
+        }
+
+        if (Boolean.parseBoolean(TestConfig.getProperty("perf.update.baseline", "false"))) {
+            Files.createDirectories(baselineDir);
+            for (Path run : runs) {
+                Files.copy(run, baselineDir.resolve(run.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("Baseline updated: " + baselineDir.resolve(run.getFileName()).toAbsolutePath());
+            }
+            return;
+        }
+
+        RegressionGate gate = new RegressionGate(
+                TestConfig.getDoubleProperty("perf.alpha", DEFAULT_ALPHA),
+                TestConfig.getDoubleProperty("perf.max.p50.increase", DEFAULT_MAX_P50_INCREASE),
+                TestConfig.getDoubleProperty("perf.max.p99.increase", DEFAULT_MAX_P99_INCREASE),
+                TestConfig.getDoubleProperty("perf.max.throughput.decrease", DEFAULT_MAX_THROUGHPUT_DECREASE),
+                TestConfig.getIntProperty("perf.min.samples", DEFAULT_MIN_SAMPLES));
+        List<Comparison> comparisons = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+        for (Path run : runs) {
+            String source = run.getFileName().toString().replaceFirst("\\.perf$", "");
+            Path baseline = baselineDir.resolve(run.getFileName());
+            if (!Files.exists(baseline)) {
+                report.append(String.format("%s: no baseline %s, store one with -Dperf.update.baseline=true%n",
+                        source, baseline));
+                continue;
+            }
+            comparisons.addAll(gate.compare(source, PerfSummary.read(baseline), PerfSummary.read(run)));
+        }
+        report.insert(0, gate.format(comparisons));
+
+        long regressions = comparisons.stream().filter(Comparison::regressed).count();
+        report.append(String.format("%nRegressions: %d of %d compared actions%n", regressions, comparisons.size()));
+        System.out.print(report);
+        Path reportFile = runDir.resolve("regression-report.txt");
+        Files.writeString(reportFile, report, StandardCharsets.UTF_8);
+        attachToAllure(report.toString(), regressions > 0);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    public List<Comparison> compare(String source, PerfSummary baseline, PerfSummary current) {
+        List<Comparison> comparisons = new ArrayList<>();
+        Map<String, PerfSummary.ActionResult> currentActions = current.getActions();
+        for (Map.Entry<String, PerfSummary.ActionResult> entry : baseline.getActions().entrySet()) {
+            PerfSummary.ActionResult after = currentActions.get(entry.getKey());
+            comparisons.add(after == null
+                    ? missing(source, entry.getKey(), entry.getValue())
+                    : compare(source, entry.getKey(), entry.getValue(), after));
+        }
+        return comparisons;
+    }
+
+    private static Comparison missing(String source, String action, PerfSummary.ActionResult before) {
+        LatencyHistogram baseline = before.getHistogram();
+        return new Comparison(source, action, baseline.getTotalCount(), 0, baseline.getValueAtPercentile(50), 0,
+                Double.NaN, baseline.getValueAtPercentile(99), 0, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                Comparison.MISSING);
+    }
+
+    private Comparison compare(String source, String action, PerfSummary.ActionResult before, PerfSummary.ActionResult after) {
+        LatencyHistogram baseline = before.getHistogram();
+        LatencyHistogram current = after.getHistogram();
+        long baselineP50 = baseline.getValueAtPercentile(50);
+        long currentP50 = current.getValueAtPercentile(50);
+        long baselineP99 = baseline.getValueAtPercentile(99);
+        long currentP99 = current.getValueAtPercentile(99);
+        double p50Change = change(baselineP50, currentP50);
+        double p99Change = change(baselineP99, currentP99);
+        double throughputChange = before.getThroughput() > 0 && after.getThroughput() > 0
+                ? after.getThroughput() / before.getThroughput() - 1 : 0;
+
+        if (baseline.getTotalCount() < minSamples || current.getTotalCount() < minSamples) {
+            return new Comparison(source, action, baseline.getTotalCount(), current.getTotalCount(), baselineP50,
+                    currentP50, p50Change, baselineP99, currentP99, p99Change, throughputChange, Double.NaN, Double.NaN,
+                    "skipped:samples");
+        }
+        MannWhitney test = MannWhitney.greater(current, baseline);
+        List<String> flags = new ArrayList<>(3);
+        if (test.pValue() < alpha) {
+            if (p50Change > maxP50Increase) {
+                flags.add("p50");
+            }
+            if (p99Change > maxP99Increase) {
+                flags.add("p99");
+            }
+        }
+        // Одиночная оценка без критерия значимости: в итоге тестов она зависит от параллельного запуска
+        if (THROUGHPUT_SOURCE.equals(source) && throughputChange < -maxThroughputDecrease) {
+            flags.add("throughput");
+        }
+        String verdict = flags.isEmpty() ? "ok" : "regression:" + String.join("|", flags);
+        return new Comparison(source, action, baseline.getTotalCount(), current.getTotalCount(), baselineP50, currentP50,
+                p50Change, baselineP99, currentP99, p99Change, throughputChange, test.pValue(), test.effect(), verdict);
+    }
+
+    private String format(List<Comparison> comparisons) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT,
+                "Performance against baseline (alpha=%s, p50 +%.0f%%, p99 +%.0f%%, throughput -%.0f%%):%n",
+                alpha, maxP50Increase * 100, maxP99Increase * 100, maxThroughputDecrease * 100));
+        report.append(String.format(ROW_FORMAT, "Source", "Action", "Base n", "Run n", "Base p50", "Run p50", "p50 chg",
+                "Base p99", "Run p99", "p99 chg", "Thr chg", "p-value", "P(>)", "Verdict"));
+        for (Comparison c : comparisons) {
+            report.append(String.format(Locale.ROOT, ROW_FORMAT, c.source(), c.action(), c.baselineCount(),
+                    c.currentCount(), millis(c.baselineP50()), millis(c.currentP50()), percent(c.p50Change()),
+                    millis(c.baselineP99()), millis(c.currentP99()), percent(c.p99Change()),
+                    THROUGHPUT_SOURCE.equals(c.source()) ? percent(c.throughputChange()) : "-", Double.isNaN(c.pValue()) ? "-" : String.format(Locale.ROOT, "%.2g", c.pValue()),
+                    Double.isNaN(c.effect()) ? "-" : String.format(Locale.ROOT, "%.2f", c.effect()), c.verdict()));
+        }
+        return report.toString();
+    }
+
+    private static void attachToAllure(String report, boolean failed) {
+        if (System.getProperty("allure.results.directory") == null) {
+            System.setProperty("allure.results.directory", TestConfig.getAllureResultsDirectory());
+        }
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setHistoryId(RegressionGate.class.getName())
+                .setName("Регрессия производительности относительно базовой линии")
+                .setFullName(RegressionGate.class.getName())
+                .setStatus(failed ? Status.FAILED : Status.PASSED)
+                .setLabels(List.of(ResultsUtils.createEpicLabel("Производительность"),
+                        ResultsUtils.createFeatureLabel("Регрессия производительности"))));
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("Performance diff", "text/plain", ".txt", report.getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+
+    private static double change(long baseline, long current) {
+        return baseline > 0 ? (double) current / baseline - 1 : 0;
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1_000.0);
+    }
+
+    private static String percent(double change) {
+        return Double.isNaN(change) ? "-" : String.format(Locale.ROOT, "%+.1f%%", change * 100);
+    }
+
+    /**
+     * Сравнение одного действия; {@code effect} — оценка вероятности того, что задержка прогона больше базовой.
+     */
+    public record Comparison(String source, String action, long baselineCount, long currentCount, long baselineP50,
+                             long currentP50, double p50Change, long baselineP99, long currentP99, double p99Change,
+                             double throughputChange, double pValue, double effect, String verdict) {
+        static final String MISSING = "missing";
+
+        public boolean regressed() {
+            return verdict.startsWith("regression") || verdict.equals(MISSING);
+        }
+    }
+
+    /**
+     * Односторонний U-критерий Манна — Уитни по двум гистограммам: значения одной корзины считаются связями
+     * и получают средний ранг, распределение U аппроксимируется нормальным с поправкой на связи и непрерывность.
+     */
+    record MannWhitney(double u, double pValue, double effect) {
+
+        static MannWhitney greater(LatencyHistogram sample, LatencyHistogram reference) {
+            TreeMap<Long, long[]> buckets = new TreeMap<>();
+            sample.forEachBucket((low, high, count) -> buckets.computeIfAbsent(low, key -> new long[2])[0] += count);
+            reference.forEachBucket((low, high, count) -> buckets.computeIfAbsent(low, key -> new long[2])[1] += count);
+
+            double n1 = sample.getTotalCount();
+            double n2 = reference.getTotalCount();
+            double total = n1 + n2;
+            double rankSum = 0;
+            double tieSum = 0;
+            double ranked = 0;
+            for (long[] counts : buckets.values()) {
+                double ties = counts[0] + counts[1];
+                rankSum += counts[0] * (ranked + (ties + 1) / 2);
+                tieSum += ties * ties * ties - ties;
+                ranked += ties;
+            }
+            double u = rankSum - n1 * (n1 + 1) / 2;
+            double mean = n1 * n2 / 2;
+            double variance = n1 * n2 / 12 * ((total + 1) - tieSum / (total * (total - 1)));
+            if (variance <= 0) {
+                return new MannWhitney(u, 1, u / (n1 * n2));
+            }
+            double z = (u - mean - 0.5) / Math.sqrt(variance);
+            return new MannWhitney(u, 0.5 * erfc(z / Math.sqrt(2)), u / (n1 * n2));
+        }
+
+        /**
+         * Дополнительная функция ошибок с относительной погрешностью меньше 1.2e-7 (Numerical Recipes, erfcc).
+         */
+        private static double erfc(double x) {
+            double z = Math.abs(x);
+            double t = 1 / (1 + 0.5 * z);
+            double result = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                    + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                    + t * (-0.82215223 + t * 0.17087277)))))))));
+            return x >= 0 ? result : 2 - result;
+        }
+    }
+}
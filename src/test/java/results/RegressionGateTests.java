@@ -0,0 +1,101 @@
+package results;
+
+import io.qameta.allure.*;
+import metrics.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Производительность")
+@Feature("Регрессия производительности")
+public class RegressionGateTests {
+    private static final double DELTA = 1e-6;
+
+    private final RegressionGate gate = new RegressionGate(0.01, 0.10, 0.20, 0.10, 1);
+
+    @Test
+    @DisplayName("U-критерий без связей совпадает с эталоном")
+    @Story("U-критерий Манна — Уитни")
+    @Severity(SeverityLevel.NORMAL)
+    void mannWhitneyWithoutTies() {
+        // R: wilcox.test(6:10, 1:5, alternative = "greater", exact = FALSE, correct = TRUE)
+        var test = RegressionGate.MannWhitney.greater(histogram(6, 7, 8, 9, 10), histogram(1, 2, 3, 4, 5));
+
+        assertEquals(25, test.u(), DELTA);
+        assertEquals(0.0060929, test.pValue(), DELTA);
+        assertEquals(1.0, test.effect(), DELTA);
+
+        var reversed = RegressionGate.MannWhitney.greater(histogram(1, 2, 3, 4, 5), histogram(6, 7, 8, 9, 10));
+        assertEquals(0, reversed.u(), DELTA);
+        assertEquals(0.9966923, reversed.pValue(), DELTA);
+    }
+
+    @Test
+    @DisplayName("U-критерий учитывает связи средним рангом и поправкой дисперсии")
+    @Story("U-критерий Манна — Уитни")
+    @Severity(SeverityLevel.NORMAL)
+    void mannWhitneyWithTies() {
+        // R: wilcox.test(c(2,3,3,4,5,5,6), c(1,2,2,3,3,4), alternative = "greater", exact = FALSE, correct = TRUE)
+        var test = RegressionGate.MannWhitney.greater(histogram(2, 3, 3, 4, 5, 5, 6), histogram(1, 2, 2, 3, 3, 4));
+
+        assertEquals(33.5, test.u(), DELTA);
+        assertEquals(0.0397794, test.pValue(), DELTA);
+        assertEquals(33.5 / 42, test.effect(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Одинаковые выборки не дают значимого сдвига")
+    @Story("U-критерий Манна — Уитни")
+    @Severity(SeverityLevel.NORMAL)
+    void mannWhitneyIdenticalSamples() {
+        var test = RegressionGate.MannWhitney.greater(histogram(10, 10, 10), histogram(10, 10, 10));
+
+        assertEquals(1.0, test.pValue(), DELTA);
+        assertEquals(0.5, test.effect(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Действие базовой линии, пропавшее из прогона, проваливает проверку")
+    @Story("Сравнение с базовой линией")
+    @Severity(SeverityLevel.CRITICAL)
+    void missingActionIsRegression() {
+        var baseline = summary("LOGIN", 1.0);
+        baseline.add("LOGOUT", histogram(1, 2, 3), 0, 1.0);
+
+        List<RegressionGate.Comparison> comparisons = gate.compare("tests", baseline, summary("LOGIN", 1.0));
+
+        assertEquals(2, comparisons.size());
+        assertEquals("ok", comparisons.get(0).verdict());
+        assertEquals("missing", comparisons.get(1).verdict());
+        assertTrue(comparisons.get(1).regressed());
+    }
+
+    @Test
+    @DisplayName("Падение пропускной способности проверяется только в итоге нагрузочного прогона")
+    @Story("Сравнение с базовой линией")
+    @Severity(SeverityLevel.NORMAL)
+    void throughputIsCheckedOnlyForLoad() {
+        var baseline = summary("LOGIN", 1.0);
+        var slower = summary("LOGIN", 2.0);
+
+        assertEquals("ok", gate.compare("tests", baseline, slower).get(0).verdict());
+        assertEquals("regression:throughput", gate.compare("load", baseline, slower).get(0).verdict());
+    }
+
+    private static PerfSummary summary(String action, double elapsedSeconds) {
+        var summary = new PerfSummary();
+        summary.add(action, histogram(1, 2, 3, 4, 5), 0, elapsedSeconds);
+        return summary;
+    }
+
+    private static LatencyHistogram histogram(long... micros) {
+        var histogram = new LatencyHistogram();
+        for (long value : micros) {
+            histogram.recordMicros(value);
+        }
+        return histogram;
+    }
+}
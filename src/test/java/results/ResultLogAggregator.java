@@ -0,0 +1,203 @@
+package results;
+
+import config.TestConfig;
+import load.RequestTemplate;
+import metrics.LatencyHistogram;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Офлайн-агрегация журналов {@link ResultLogWriter}: файлы сливаются по времени (k-way merge) и читаются
+ * потоково, в памяти держатся только гистограммы текущего окна и итоговые гистограммы по действию и статусу,
+ * поэтому объем кучи не зависит от числа записей.
+ * <p>
+ * Результат — CSV с перцентилями по окнам времени и итоговыми строками ({@code window_start_s = total}).
+ * <p>
+ * Запуск: {@code mvn -Presults -Dresults.dir=target/results -Dresults.window.seconds=10}
+ */
+public class ResultLogAggregator {
+    private static final int READ_BUFFER_SIZE = ResultLogWriter.RECORD_SIZE * 2048;
+    private static final int DEFAULT_WINDOW_SECONDS = 10;
+    private static final String HEADER = "window_start_s,action,status,count,p50_ms,p90_ms,p99_ms,p99.9_ms,max_ms";
+
+    private final long windowMicros;
+    private final IntFunction<String> actionNames;
+
+    public ResultLogAggregator(long windowSeconds, IntFunction<String> actionNames) {
+        this.windowMicros = TimeUnit.SECONDS.toMicros(windowSeconds);
+        this.actionNames = actionNames;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(TestConfig.getProperty("results.dir", "target/results"));
+        int windowSeconds = TestConfig.getIntProperty("results.window.seconds", DEFAULT_WINDOW_SECONDS);
+        String output = TestConfig.getProperty("results.output", "");
+
+        RequestTemplate[] templates = RequestTemplate.values();
+        ResultLogAggregator aggregator = new ResultLogAggregator(windowSeconds,
+                code -> code >= 0 && code < templates.length ? templates[code].name() : "ACTION_" + code);
+        if (output.isEmpty()) {
+            aggregator.aggregate(directory, System.out);
+            return;
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(output)), false)) {
+            aggregator.aggregate(directory, out);
+        }
+    }
+
+    /**
+     * @return число обработанных записей
+     */
+    public long aggregate(Path directory, PrintStream out) throws IOException {
+        List<Cursor> cursors = openCursors(directory);
+        try {
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparingLong(cursor -> cursor.timestampMicros));
+            for (Cursor cursor : cursors) {
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+
+            out.println(HEADER);
+            Map<Integer, LatencyHistogram> window = new TreeMap<>();
+            Map<Integer, LatencyHistogram> total = new TreeMap<>();
+            long currentWindow = -1;
+            long records = 0;
+            Cursor cursor;
+            while ((cursor = queue.poll()) != null) {
+                long recordWindow = cursor.timestampMicros / windowMicros;
+                if (recordWindow != currentWindow) {
+                    printWindow(out, currentWindow, window);
+                    window.clear();
+                    currentWindow = recordWindow;
+                }
+                int key = seriesKey(cursor.action, cursor.status);
+                window.computeIfAbsent(key, k -> new LatencyHistogram()).recordMicros(cursor.latencyMicros);
+                total.computeIfAbsent(key, k -> new LatencyHistogram()).recordMicros(cursor.latencyMicros);
+                records++;
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+            printWindow(out, currentWindow, window);
+            printSeries(out, "total", total);
+            out.flush();
+            return records;
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private void printWindow(PrintStream out, long window, Map<Integer, LatencyHistogram> series) {
+        if (window >= 0 && !series.isEmpty()) {
+            printSeries(out, String.valueOf(TimeUnit.MICROSECONDS.toSeconds(window * windowMicros)), series);
+        }
+    }
+
+    private void printSeries(PrintStream out, String windowLabel, Map<Integer, LatencyHistogram> series) {
+        series.forEach((key, histogram) -> out.printf(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                windowLabel, actionNames.apply(key >>> 16), (short) (key & 0xFFFF), histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxMicros() / 1e3));
+    }
+
+    private static int seriesKey(int action, short status) {
+        return action << 16 | (status & 0xFFFF);
+    }
+
+    private static List<Cursor> openCursors(Path directory) throws IOException {
+        List<Cursor> cursors = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                ResultLogWriter.FILE_PREFIX + "*" + ResultLogWriter.FILE_SUFFIX)) {
+            for (Path file : files) {
+                cursors.add(new Cursor(file));
+            }
+        } catch (IOException e) {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+            throw e;
+        }
+        return cursors;
+    }
+
+    /**
+     * Последовательное чтение одного файла журнала через прямой буфер.
+     */
+    private static final class Cursor implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private long timestampMicros;
+        private int action;
+        private short status;
+        private int latencyMicros;
+
+        private Cursor(Path file) throws IOException {
+            this.channel = FileChannel.open(file);
+            buffer.limit(0);
+            if (!fill(ResultLogWriter.HEADER_SIZE)) {
+                throw new IOException("Truncated result log header: " + file);
+            }
+            int magic = buffer.getInt();
+            short version = buffer.getShort();
+            short recordSize = buffer.getShort();
+            buffer.getLong();
+            if (magic != ResultLogWriter.MAGIC || version != ResultLogWriter.VERSION
+                    || recordSize != ResultLogWriter.RECORD_SIZE) {
+                channel.close();
+                throw new IOException("Unsupported result log format: " + file);
+            }
+        }
+
+        private boolean next() throws IOException {
+            if (!fill(ResultLogWriter.RECORD_SIZE)) {
+                return false;
+            }
+            timestampMicros = buffer.getLong();
+            action = buffer.get() & 0xFF;
+            buffer.get();
+            status = buffer.getShort();
+            latencyMicros = buffer.getInt();
+            buffer.getLong();
+            return true;
+        }
+
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
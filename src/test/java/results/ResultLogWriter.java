@@ -0,0 +1,125 @@
+package results;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Журнал результатов запросов: записи фиксированной длины в бинарных файлах {@code results-N.bin}.
+ * <p>
+ * Запись ({@value #RECORD_SIZE} байт): время завершения в микросекундах от старта (long), код действия (byte),
+ * резерв (byte), статус (short, -1 — ошибка транспорта), задержка в микросекундах (int), идентификатор токена (long).
+ * Заголовок файла ({@value #HEADER_SIZE} байт): сигнатура, версия, длина записи и время старта в микросекундах эпохи.
+ * <p>
+ * Пишущие потоки распределяются по полосам (файлам) по идентификатору потока; внутри полосы время берется
+ * под блокировкой, поэтому каждый файл упорядочен по времени.
+ */
+public class ResultLogWriter implements Closeable {
+    static final int MAGIC = 0x524C4F47;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+    static final String FILE_PREFIX = "results-";
+    static final String FILE_SUFFIX = ".bin";
+    public static final short STATUS_ERROR = -1;
+
+    private static final int BUFFER_SIZE = RECORD_SIZE * 4096;
+
+    private final Stripe[] stripes;
+    private final long startNanos;
+
+    public ResultLogWriter(Path directory) throws IOException {
+        this(directory, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ResultLogWriter(Path directory, int stripeCount) throws IOException {
+        Files.createDirectories(directory);
+        long startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(directory.resolve(FILE_PREFIX + i + FILE_SUFFIX), startEpochMicros);
+        }
+    }
+
+    public void record(byte action, short status, int latencyMicros, long tokenId) {
+        stripes[(int) (Thread.currentThread().threadId() % stripes.length)]
+                .append(action, status, latencyMicros, tokenId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Stripe stripe : stripes) {
+            try {
+                stripe.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final FileChannel channel;
+
+        private Stripe(Path file, long startEpochMicros) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).putLong(startEpochMicros);
+        }
+
+        private void append(byte action, short status, int latencyMicros, long tokenId) {
+            lock.lock();
+            try {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    flush();
+                }
+                buffer.putLong((System.nanoTime() - startNanos) / 1_000)
+                        .put(action)
+                        .put((byte) 0)
+                        .putShort(status)
+                        .putInt(latencyMicros)
+                        .putLong(tokenId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                buffer.clear();
+            }
+        }
+
+        private void close() throws IOException {
+            lock.lock();
+            try {
+                flush();
+                channel.close();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package results;
+
+import config.TestConfig;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import replay.TrafficRecorder;
+import steps.CallAccounting;
+
+import java.nio.file.Path;
+
+/**
+ * При закрытии сессии JUnit сохраняет итог измерений задержки для {@link RegressionGate}, отчет о вызовах мока
+ * и сбрасывает на диск записанный трафик, не дожидаясь закрытия файла при остановке JVM.
+ * Регистрируется через META-INF/services.
+ */
+public class RunReportsSessionListener implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        PerfRun.write("tests");
+        CallAccounting.write(Path.of(TestConfig.getMockCallsReport()));
+        TrafficRecorder.flush();
+    }
+}
@@ -0,0 +1,214 @@
+package simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.TestConfig;
+import helpers.HttpServerHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Локальная замена internal-0.0.1-SNAPSHOT.jar с тем же контрактом, что проверяют
+ * {@code ApplicationSteps.verify*}: проверка X-Api-Key, валидация токена и действия,
+ * LOGIN/ACTION/LOGOUT по токену с вызовами мока {@code /auth} и {@code /doAction}.
+ * <p>
+ * Включается в тестах через {@code -Dapp.simulator.enabled=true}, отдельно — {@code mvn -Psimulator}.
+ */
+public class ServiceSimulator {
+    private static final Logger logger = Logger.getLogger(ServiceSimulator.class.getName());
+
+    private static final String API_KEY = TestConfig.getApiKey();
+    private static final String VALID_CHARS = TestConfig.getTokenValidChars();
+    private static final int TOKEN_LENGTH = TestConfig.getTokenLength();
+    private static final Set<String> ACTIONS = Set.of("LOGIN", "ACTION", "LOGOUT");
+    private static final Duration MOCK_TIMEOUT = Duration.ofSeconds(10);
+    private static final int BACKLOG = 4096;
+
+    private static final byte[] OK = json("{\"result\":\"OK\"}");
+    private static final byte[] INVALID_API_KEY = error("Missing or invalid API Key");
+    private static final byte[] INVALID_TOKEN = error("token: invalid value");
+    private static final byte[] INVALID_ACTION = error("action: invalid action");
+    private static final byte[] TOKEN_NOT_FOUND = error("Token not found");
+    private static final byte[] EXTERNAL_SERVICE_ERROR = error("Internal Server Error");
+
+    static {
+        HttpServerHelper.enableTcpNoDelay();
+    }
+
+    private static final List<ServiceSimulator> instances = new ArrayList<>();
+
+    private final SessionStore sessions = new SessionStore();
+    private final HttpClient mockClient;
+    private final URI authUri;
+    private final URI actionUri;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ServiceSimulator(int port, String mockBaseUrl) {
+        this.authUri = URI.create(mockBaseUrl + TestConfig.getMockAuthEndpoint());
+        this.actionUri = URI.create(mockBaseUrl + TestConfig.getMockActionEndpoint());
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.mockClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(MOCK_TIMEOUT)
+                .executor(executor)
+                .build();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start simulator on port " + port, e);
+        }
+        server.setExecutor(executor);
+        server.createContext(TestConfig.getEndpoint(), this::handle);
+    }
+
+    public static void main(String[] args) {
+        start();
+        logger.info("Simulator started on " + TestConfig.getBaseUrls());
+    }
+
+    /**
+     * Запускает по экземпляру на каждый адрес из {@code app.base.url}; сессии у экземпляров независимы.
+     */
+    public static synchronized void start() {
+        if (instances.isEmpty()) {
+            for (String baseUrl : TestConfig.getBaseUrls()) {
+                ServiceSimulator simulator = new ServiceSimulator(URI.create(baseUrl).getPort(), TestConfig.getSimulatorMockUrl());
+                simulator.server.start();
+                instances.add(simulator);
+            }
+        }
+    }
+
+    public static synchronized void stop() {
+        for (ServiceSimulator simulator : instances) {
+            simulator.server.stop(0);
+            simulator.executor.shutdownNow();
+        }
+        instances.clear();
+    }
+
+    public SessionStore getSessions() {
+        return sessions;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (!API_KEY.equals(exchange.getRequestHeaders().getFirst("X-Api-Key"))) {
+                send(exchange, 401, INVALID_API_KEY);
+                return;
+            }
+
+            String token = null;
+            String action = null;
+            for (String pair : body.split("&")) {
+                int separator = pair.indexOf('=');
+                String name = separator < 0 ? pair : pair.substring(0, separator);
+                String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                if ("token".equals(name)) {
+                    token = value;
+                } else if ("action".equals(name)) {
+                    action = value;
+                }
+            }
+
+            if (!isValidToken(token)) {
+                send(exchange, 400, INVALID_TOKEN);
+            } else if (action == null || !ACTIONS.contains(action)) {
+                send(exchange, 400, INVALID_ACTION);
+            } else {
+                process(exchange, token, action);
+            }
+        }
+    }
+
+    private void process(HttpExchange exchange, String token, String action) throws IOException {
+        switch (action) {
+            case "LOGIN" -> {
+                if (!callMock(authUri, token)) {
+                    send(exchange, 500, EXTERNAL_SERVICE_ERROR);
+                    return;
+                }
+                sessions.login(token);
+                send(exchange, 200, OK);
+            }
+            case "ACTION" -> {
+                if (!sessions.isLoggedIn(token)) {
+                    send(exchange, 403, TOKEN_NOT_FOUND);
+                } else if (!callMock(actionUri, token)) {
+                    send(exchange, 500, EXTERNAL_SERVICE_ERROR);
+                } else if (!sessions.markAction(token)) {
+                    send(exchange, 403, TOKEN_NOT_FOUND);
+                } else {
+                    send(exchange, 200, OK);
+                }
+            }
+            default -> {
+                if (sessions.logout(token)) {
+                    send(exchange, 200, OK);
+                } else {
+                    send(exchange, 403, TOKEN_NOT_FOUND);
+                }
+            }
+        }
+    }
+
+    private boolean callMock(URI uri, String token) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(MOCK_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("token=" + token))
+                .build();
+        try {
+            return mockClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isValidToken(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (VALID_CHARS.indexOf(token.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void send(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static byte[] error(String message) {
+        return json("{\"result\":\"ERROR\",\"message\":\"" + message + "\"}");
+    }
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package simulator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Хранилище сессий симулятора с разбиением на сегменты: токены распределяются по сегментам
+ * по хешу, каждый сегмент защищен своей блокировкой.
+ */
+public class SessionStore {
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public SessionStore() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public SessionStore(int concurrency) {
+        int size = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void login(String token) {
+        Stripe stripe = stripeFor(token);
+        stripe.lock.lock();
+        try {
+            stripe.sessions.put(token, SessionState.LOGGED_IN);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public boolean markAction(String token) {
+        Stripe stripe = stripeFor(token);
+        stripe.lock.lock();
+        try {
+            return stripe.sessions.computeIfPresent(token, (key, state) -> SessionState.ACTION_DONE) != null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public boolean isLoggedIn(String token) {
+        Stripe stripe = stripeFor(token);
+        stripe.lock.lock();
+        try {
+            return stripe.sessions.containsKey(token);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public boolean logout(String token) {
+        Stripe stripe = stripeFor(token);
+        stripe.lock.lock();
+        try {
+            return stripe.sessions.remove(token) != null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.sessions.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String token) {
+        int hash = token.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public enum SessionState {
+        LOGGED_IN, ACTION_DONE
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, SessionState> sessions = new HashMap<>();
+    }
+}
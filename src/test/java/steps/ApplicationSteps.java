@@ -1,32 +1,38 @@
 package steps;
 
+import bootstrap.SuiteBootstrap;
 import builders.RequestData;
 import builders.RequestDataBuilder;
 import clients.ApplicationClient;
-import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
-import static org.hamcrest.Matchers.*;
+import mock.MockEndpoint;
+import mock.MockService;
 
 public class ApplicationSteps {
     private static final ApplicationClient client = new ApplicationClient();
 
     @Step("Выполнение запроса с данными: {requestData}")
     public static Response executeRequest(RequestData requestData) {
-        attachRequestDetails(requestData);
+        SuiteBootstrap.markFirstRequest();
+        long requestTime = System.currentTimeMillis();
+        long[] mockCallsBefore = CallAccounting.before(requestData.getToken());
+        long start = System.nanoTime();
 
         Response response;
-        if (requestData.isWithApiKey()) {
-            response = client.sendRequest(requestData.getToken(), requestData.getAction());
-        } else {
-            response = client.sendRequestWithoutApiKey(requestData.getToken(), requestData.getAction());
+        try {
+            if (requestData.isWithApiKey()) {
+                response = client.sendRequest(requestData.getToken(), requestData.getAction());
+            } else {
+                response = client.sendRequestWithoutApiKey(requestData.getToken(), requestData.getAction());
+            }
+        } catch (RuntimeException e) {
+            RequestReporter.reportFailure(requestData, requestTime);
+            throw e;
         }
+        CallAccounting.record(requestData.getAction(), requestData.getToken(), mockCallsBefore, System.nanoTime() - start);
 
-        attachResponseDetails(response);
+        RequestReporter.report(requestData, requestTime, response, System.currentTimeMillis());
         return response;
     }
 
@@ -69,65 +75,51 @@ public class ApplicationSteps {
         verifySuccessResponse(logoutResponse);
     }
 
+    @Step("Проверка, что токен вызвал {endpoint} {expected} раз")
+    public static void verifyMockCalls(String token, MockEndpoint endpoint, long expected) {
+        long calls = MockService.getCalls(token, endpoint);
+        if (calls != expected) {
+            throw new AssertionError(String.format("Expected %d %s calls for token %s but was %d",
+                    expected, endpoint.getPath(), token, calls));
+        }
+    }
+
+    @Step("Проверка, что {action} вызывает {endpoint} не более {max} раз за запрос")
+    public static void verifyCallsPerRequestAtMost(String action, MockEndpoint endpoint, long max) {
+        CallAccounting.verifyAtMost(action, endpoint, max);
+    }
+
     @Step("Проверка успешного ответа")
     public static void verifySuccessResponse(Response response) {
-        response.then()
-                .statusCode(200)
-                .body("result", equalTo("OK"))
-                .body("message", nullValue());
+        verify(ResponseVerifier.SUCCESS, response);
     }
 
     @Step("Проверка ошибки валидации")
     public static void verifyValidationError(Response response) {
-        response.then()
-                .statusCode(400)
-                .body("result", equalTo("ERROR"))
-                .body("message", not(emptyOrNullString()));
+        verify(ResponseVerifier.VALIDATION_ERROR, response);
     }
 
     @Step("Проверка ошибки авторизации")
     public static void verifyAuthError(Response response) {
-        response.then()
-                .statusCode(401)
-                .body("result", equalTo("ERROR"))
-                .body("message", not(emptyOrNullString()));
+        verify(ResponseVerifier.AUTH_ERROR, response);
     }
 
     @Step("Проверка ошибки доступа")
     public static void verifyForbiddenError(Response response) {
-        response.then()
-                .statusCode(403)
-                .body("result", equalTo("ERROR"))
-                .body("message", not(emptyOrNullString()));
+        verify(ResponseVerifier.FORBIDDEN_ERROR, response);
     }
 
     @Step("Проверка ошибки внешнего сервиса (ожидается 500)")
     public static void verifyExternalServiceError(Response response) {
-        response.then()
-                .statusCode(500)
-                .body("result", equalTo("ERROR"))
-                .body("message", not(emptyOrNullString()));
+        verify(ResponseVerifier.EXTERNAL_SERVICE_ERROR, response);
     }
 
-    // Вспомогательные методы для аттачментов
-    private static void attachRequestDetails(RequestData requestData) {
-        String requestDetails = String.format(
-                "Token: %s\nAction: %s\nAPI Key: %s\nTime: %s",
-                requestData.getToken(),
-                requestData.getAction(),
-                requestData.isWithApiKey() ? "present" : "missing",
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-        );
-        Allure.addAttachment("Request Details", "text/plain", requestDetails);
-    }
-
-    private static void attachResponseDetails(Response response) {
-        String responseDetails = String.format(
-                "Status Code: %d\nResponse Body: %s\nTime: %s",
-                response.getStatusCode(),
-                response.getBody().asString(),
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-        );
-        Allure.addAttachment("Response Details", "text/plain", responseDetails);
+    private static void verify(ResponseVerifier verifier, Response response) {
+        try {
+            verifier.verify(response);
+        } catch (AssertionError e) {
+            RequestReporter.reportMismatch(response);
+            throw e;
+        }
     }
 }
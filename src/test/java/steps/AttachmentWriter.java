@@ -0,0 +1,108 @@
+package steps;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Фоновая запись аттачментов Allure пачками. В потоке теста выполняется только
+ * {@link AllureLifecycle#prepareAttachment}, содержимое формируется и пишется на диск здесь.
+ * Место в очереди резервируется до {@code prepareAttachment}: при переполнении аттачмент отбрасывается целиком,
+ * без ссылки на ненаписанный файл, и поток теста никогда не ждет.
+ */
+class AttachmentWriter {
+    private static final Logger logger = Logger.getLogger(AttachmentWriter.class.getName());
+    private static final int BATCH_SIZE = 256;
+
+    private final BlockingQueue<PendingAttachment> queue;
+    private final Semaphore slots;
+    private final AllureLifecycle lifecycle = Allure.getLifecycle();
+    private final LongAdder dropped = new LongAdder();
+    private final Object flushLock = new Object();
+    private long submitted;
+    private long written;
+
+    AttachmentWriter(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.slots = new Semaphore(capacity);
+        Thread worker = new Thread(this::drainLoop, "allure-attachment-writer");
+        worker.setDaemon(true);
+        worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "allure-attachment-flush"));
+    }
+
+    void submit(String name, Supplier<String> content) {
+        if (!slots.tryAcquire()) {
+            dropped.increment();
+            return;
+        }
+        String source = lifecycle.prepareAttachment(name, "text/plain", ".txt");
+        // Место зарезервировано, поэтому add не бросает исключение
+        queue.add(new PendingAttachment(source, content));
+        synchronized (flushLock) {
+            submitted++;
+        }
+    }
+
+    void flush() {
+        synchronized (flushLock) {
+            while (written < submitted) {
+                try {
+                    flushLock.wait(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        long droppedCount = dropped.sum();
+        if (droppedCount > 0) {
+            logger.warning("Attachment queue overflow, dropped attachments: " + droppedCount);
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingAttachment> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            slots.release(batch.size());
+            for (PendingAttachment attachment : batch) {
+                write(attachment);
+            }
+            synchronized (flushLock) {
+                written += batch.size();
+                flushLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(PendingAttachment attachment) {
+        try {
+            byte[] bytes = attachment.content().get().getBytes(StandardCharsets.UTF_8);
+            lifecycle.writeAttachment(attachment.source(), new ByteArrayInputStream(bytes));
+        } catch (Exception e) {
+            // REST Assured пробрасывает IOException без объявления; поток записи не должен на этом останавливаться
+            logger.warning("Could not write attachment " + attachment.source() + ": " + e.getMessage());
+        }
+    }
+
+    private record PendingAttachment(String source, Supplier<String> content) {
+    }
+}
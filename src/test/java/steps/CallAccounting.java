@@ -0,0 +1,136 @@
+package steps;
+
+import metrics.LatencyHistogram;
+import mock.CallCounters;
+import mock.MockEndpoint;
+import mock.MockService;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Учет вызовов внешнего сервиса на один запрос к /endpoint: разница счетчиков мока по токену запроса
+ * до и после ответа относится к действию запроса. Счетчики мока обновляются до отправки его ответа,
+ * поэтому к моменту ответа приложения все вызовы, сделанные в рамках запроса, уже учтены.
+ */
+public final class CallAccounting {
+    private static final Logger logger = Logger.getLogger(CallAccounting.class.getName());
+    private static final MockEndpoint[] ENDPOINTS = MockEndpoint.values();
+    private static final Map<String, ActionCalls> actions = new ConcurrentSkipListMap<>();
+
+    private CallAccounting() {
+    }
+
+    /**
+     * @return вызовы мока с токеном на момент перед запросом или null, если учет невозможен
+     */
+    static long[] before(String token) {
+        CallCounters counters = MockService.getCallCounters();
+        if (token == null || counters == null || !counters.isTrackingTokens()) {
+            return null;
+        }
+        return counters.snapshot(token);
+    }
+
+    static void record(String action, String token, long[] before, long latencyNanos) {
+        CallCounters counters = MockService.getCallCounters();
+        if (before == null || counters == null) {
+            return;
+        }
+        long[] after = counters.snapshot(token);
+        ActionCalls calls = actions.computeIfAbsent(String.valueOf(action), key -> new ActionCalls());
+        calls.requests.increment();
+        calls.latency.recordNanos(latencyNanos);
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            long delta = after[i] - before[i];
+            calls.calls.addAndGet(i, delta);
+            calls.maxPerRequest.accumulateAndGet(i, delta, Math::max);
+        }
+    }
+
+    /**
+     * Проверяет, что ни один учтенный запрос с действием {@code action} не вызвал эндпоинт больше {@code max} раз.
+     */
+    public static void verifyAtMost(String action, MockEndpoint endpoint, long max) {
+        ActionCalls calls = actions.get(action);
+        if (calls == null) {
+            throw new AssertionError("No " + action + " requests with mock call accounting");
+        }
+        long observed = calls.maxPerRequest.get(endpoint.ordinal());
+        if (observed > max) {
+            throw new AssertionError(String.format("%s made up to %d %s calls per request, expected at most %d",
+                    action, observed, endpoint.getPath(), max));
+        }
+    }
+
+    public static long getRequests(String action) {
+        ActionCalls calls = actions.get(action);
+        return calls == null ? 0 : calls.requests.sum();
+    }
+
+    public static long getCalls(String action, MockEndpoint endpoint) {
+        ActionCalls calls = actions.get(action);
+        return calls == null ? 0 : calls.calls.get(endpoint.ordinal());
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder("Mock calls per /endpoint request:\n");
+        report.append(String.format("%-14s %9s", "Action", "Requests"));
+        for (MockEndpoint endpoint : ENDPOINTS) {
+            report.append(String.format(" %12s %8s %5s", endpoint.getPath(), "per req", "max"));
+        }
+        report.append(String.format(" %9s %9s %9s%n", "p50 ms", "p99 ms", "max ms"));
+        actions.forEach((action, calls) -> {
+            long requests = calls.requests.sum();
+            report.append(String.format(Locale.ROOT, "%-14s %9d", label(action), requests));
+            for (MockEndpoint endpoint : ENDPOINTS) {
+                long total = calls.calls.get(endpoint.ordinal());
+                report.append(String.format(Locale.ROOT, " %12d %8.2f %5d", total,
+                        requests == 0 ? 0.0 : (double) total / requests, calls.maxPerRequest.get(endpoint.ordinal())));
+            }
+            report.append(String.format(Locale.ROOT, " %9.1f %9.1f %9.1f%n",
+                    calls.latency.getValueAtPercentile(50) / 1000.0,
+                    calls.latency.getValueAtPercentile(99) / 1000.0,
+                    calls.latency.getMaxMicros() / 1000.0));
+        });
+        return report.toString();
+    }
+
+    /**
+     * Выводит отчет в лог и сохраняет его в {@code path}; без учтенных запросов ничего не делает.
+     */
+    public static void write(Path path) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        String report = report();
+        logger.info(report);
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                writer.write(report);
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to write mock call report: " + e.getMessage());
+        }
+    }
+
+    private static String label(String action) {
+        return action.isBlank() ? "'" + action.replace("\t", "\\t").replace("\n", "\\n") + "'" : action;
+    }
+
+    private static final class ActionCalls {
+        private final LongAdder requests = new LongAdder();
+        private final AtomicLongArray calls = new AtomicLongArray(ENDPOINTS.length);
+        private final AtomicLongArray maxPerRequest = new AtomicLongArray(ENDPOINTS.length);
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,164 @@
+package steps;
+
+import io.qameta.allure.Allure;
+import metrics.LatencyHistogram;
+import results.PerfRun;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Статистическая проверка задержки: действие выполняется N раз после прогрева, опционально в несколько потоков,
+ * времена собираются в гистограмму и сравниваются с порогами по перцентилям.
+ * При нарушении порога полное распределение прикладывается к отчету. Измерение попадает в итог прогона
+ * {@link PerfRun} для сравнения с базовой линией. Перцентиль должен опираться на несколько выборок:
+ * p99 — от 500 итераций, p99.9 — от 5000, иначе он совпадает с максимумом.
+ *
+ * <pre>{@code
+ * LatencyAssertion.measure("LOGIN", () -> login(token()), token -> logout(token))
+ *         .warmUp(50).iterations(500).concurrency(4)
+ *         .percentileBelow(95, 50, TimeUnit.MILLISECONDS)
+ *         .percentileBelow(99, 200, TimeUnit.MILLISECONDS)
+ *         .verify();
+ * }</pre>
+ */
+public class LatencyAssertion {
+    private static final double[] REPORTED_PERCENTILES = {50, 75, 90, 95, 99, 99.9};
+    private static final Runnable NO_CLEANUP = () -> {
+    };
+
+    private final String name;
+    /**
+     * Измеряемая часть итерации; возвращает неизмеряемое завершение итерации.
+     */
+    private final Supplier<Runnable> action;
+    private final List<Threshold> thresholds = new ArrayList<>();
+    private int warmUpIterations = 10;
+    private int iterations = 100;
+    private int concurrency = 1;
+
+    private LatencyAssertion(String name, Supplier<Runnable> action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    public static LatencyAssertion measure(String name, Runnable action) {
+        return new LatencyAssertion(name, () -> {
+            action.run();
+            return NO_CLEANUP;
+        });
+    }
+
+    /**
+     * @param cleanup выполняется после каждой итерации вне измерения с результатом {@code action},
+     *                например LOGOUT залогиненного токена
+     */
+    public static <T> LatencyAssertion measure(String name, Supplier<T> action, Consumer<T> cleanup) {
+        return new LatencyAssertion(name, () -> {
+            T result = action.get();
+            return () -> cleanup.accept(result);
+        });
+    }
+
+    public LatencyAssertion warmUp(int warmUpIterations) {
+        this.warmUpIterations = warmUpIterations;
+        return this;
+    }
+
+    public LatencyAssertion iterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    public LatencyAssertion concurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public LatencyAssertion percentileBelow(double percentile, long limit, TimeUnit unit) {
+        thresholds.add(new Threshold(percentile, unit.toMicros(limit)));
+        return this;
+    }
+
+    public LatencyHistogram verify() {
+        return Allure.step(String.format("Проверка задержки %s: %d итераций, %d потоков", name, iterations, concurrency), () -> {
+            run(warmUpIterations, null);
+            LatencyHistogram histogram = new LatencyHistogram();
+            long start = System.nanoTime();
+            run(iterations, histogram);
+            PerfRun.record(name, histogram, 0, (System.nanoTime() - start) / 1e9);
+
+            List<String> violations = new ArrayList<>();
+            for (Threshold threshold : thresholds) {
+                long actual = histogram.getValueAtPercentile(threshold.percentile());
+                if (actual >= threshold.limitMicros()) {
+                    violations.add(String.format("%s p%s = %.2f ms, expected < %.2f ms", name,
+                            formatPercentile(threshold.percentile()), actual / 1000.0, threshold.limitMicros() / 1000.0));
+                }
+            }
+            if (!violations.isEmpty()) {
+                Allure.addAttachment("Latency distribution: " + name, "text/plain", describe(histogram));
+                throw new AssertionError(String.join("\n", violations));
+            }
+            return histogram;
+        });
+    }
+
+    private void run(int count, LatencyHistogram histogram) throws InterruptedException, ExecutionException {
+        if (count <= 0) {
+            return;
+        }
+        AtomicInteger remaining = new AtomicInteger(count);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long begin = System.nanoTime();
+                        Runnable cleanup = action.get();
+                        if (histogram != null) {
+                            histogram.recordNanos(System.nanoTime() - begin);
+                        }
+                        cleanup.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private String describe(LatencyHistogram histogram) {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("%s: %d samples, mean %.2f ms, max %.2f ms%n%n",
+                name, histogram.getTotalCount(), histogram.getMeanMicros() / 1000.0, histogram.getMaxMicros() / 1000.0));
+        for (double percentile : REPORTED_PERCENTILES) {
+            result.append(String.format("p%-5s %10.2f ms%n", formatPercentile(percentile),
+                    histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        for (Threshold threshold : thresholds) {
+            result.append(String.format("%nThreshold: p%s < %.2f ms", formatPercentile(threshold.percentile()),
+                    threshold.limitMicros() / 1000.0));
+        }
+        result.append(String.format("%n%nBuckets (ms):%n"));
+        histogram.forEachBucket((low, high, count) ->
+                result.append(String.format("[%10.3f, %10.3f] %d%n", low / 1000.0, high / 1000.0, count)));
+        return result.toString();
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private record Threshold(double percentile, long limitMicros) {
+    }
+}
@@ -0,0 +1,132 @@
+package steps;
+
+import builders.RequestData;
+import config.TestConfig;
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Аттачменты запросов и ответов в Allure.
+ * <ul>
+ *     <li>{@code report.mode=full} (по умолчанию) — синхронно, для каждого запроса;</li>
+ *     <li>{@code report.mode=sampled} — лениво и в фоне, ответы сохраняются 1 из {@code report.sample.rate},
+ *     ответы, не прошедшие проверку ({@link #reportMismatch}), и исключения — всегда;</li>
+ *     <li>{@code report.mode=off} — без аттачментов.</li>
+ * </ul>
+ */
+public class RequestReporter {
+    private static final Mode MODE = Mode.valueOf(TestConfig.getProperty("report.mode", "full").toUpperCase(Locale.ROOT));
+    private static final int SAMPLE_RATE = Math.max(1, TestConfig.getIntProperty("report.sample.rate", 100));
+    private static final int QUEUE_CAPACITY = TestConfig.getIntProperty("report.queue.capacity", 10_000);
+
+    private static final AtomicLong sampleCounter = new AtomicLong();
+    /** Последний не попавший в выборку ответ потока: сохраняется, если его проверка не пройдет. */
+    private static final ThreadLocal<Exchange> unsampled = new ThreadLocal<>();
+
+    private enum Mode {
+        FULL, SAMPLED, OFF
+    }
+
+    private static class WriterHolder {
+        private static final AttachmentWriter WRITER = new AttachmentWriter(QUEUE_CAPACITY);
+    }
+
+    public static void report(RequestData requestData, long requestTimeMillis, Response response, long responseTimeMillis) {
+        switch (MODE) {
+            case FULL -> {
+                Allure.addAttachment("Request Details", "text/plain", requestDetails(requestData, requestTimeMillis));
+                Allure.addAttachment("Response Details", "text/plain", responseDetails(response.getStatusCode(), response.getBody().asString(), responseTimeMillis));
+            }
+            case SAMPLED -> {
+                if (!isTestRunning()) {
+                    return;
+                }
+                // Ожидаемый статус 4xx/5xx — не сбой, поэтому решение откладывается до проверки ответа
+                var exchange = new Exchange(requestData, requestTimeMillis, response, responseTimeMillis);
+                if (sampleCounter.getAndIncrement() % SAMPLE_RATE == 0) {
+                    unsampled.remove();
+                    submit(exchange);
+                } else {
+                    unsampled.set(exchange);
+                }
+            }
+            case OFF -> {
+            }
+        }
+    }
+
+    /**
+     * Сохраняет ответ, не прошедший проверку, если он не попал в выборку; в режиме full он уже сохранен.
+     */
+    public static void reportMismatch(Response response) {
+        if (MODE != Mode.SAMPLED) {
+            return;
+        }
+        Exchange exchange = unsampled.get();
+        if (exchange != null && exchange.response() == response) {
+            unsampled.remove();
+            submit(exchange);
+        }
+    }
+
+    public static void reportFailure(RequestData requestData, long requestTimeMillis) {
+        if (MODE == Mode.OFF || (MODE == Mode.SAMPLED && !isTestRunning())) {
+            return;
+        }
+        Allure.addAttachment("Request Details", "text/plain", requestDetails(requestData, requestTimeMillis));
+    }
+
+    public static void flush() {
+        if (MODE == Mode.SAMPLED) {
+            WriterHolder.WRITER.flush();
+        }
+    }
+
+    private static void submit(Exchange exchange) {
+        // Тело читается в потоке теста: чтение потока ответа REST Assured из двух потоков ломает его,
+        // а проверка ответа все равно читает тело, и REST Assured его кэширует
+        int statusCode = exchange.response().getStatusCode();
+        String body = exchange.response().getBody().asString();
+        AttachmentWriter writer = WriterHolder.WRITER;
+        writer.submit("Request Details", () -> requestDetails(exchange.requestData(), exchange.requestTimeMillis()));
+        writer.submit("Response Details", () -> responseDetails(statusCode, body, exchange.responseTimeMillis()));
+    }
+
+    private static boolean isTestRunning() {
+        return Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent();
+    }
+
+    private static String requestDetails(RequestData requestData, long requestTimeMillis) {
+        return String.format(
+                "Token: %s\nAction: %s\nAPI Key: %s\nTime: %s",
+                requestData.getToken(),
+                requestData.getAction(),
+                requestData.isWithApiKey() ? "present" : "missing",
+                formatTime(requestTimeMillis)
+        );
+    }
+
+    private static String responseDetails(int statusCode, String body, long responseTimeMillis) {
+        return String.format(
+                "Status Code: %d\nResponse Body: %s\nTime: %s",
+                statusCode,
+                body,
+                formatTime(responseTimeMillis)
+        );
+    }
+
+    private static String formatTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    private record Exchange(RequestData requestData, long requestTimeMillis, Response response, long responseTimeMillis) {
+    }
+}
@@ -0,0 +1,347 @@
+package steps;
+
+import clients.ClientResponse;
+import io.restassured.response.Response;
+
+/**
+ * Проверка ответа вида {@code {"result": ..., "message": ...}} за один проход по телу без JsonPath и Hamcrest.
+ * Ожидания (статус, значение result, наличие message) задаются заранее; сообщения об ошибках совпадают
+ * с сообщениями REST Assured, первое несоответствие прерывает проверку.
+ */
+public final class ResponseVerifier {
+    public static final ResponseVerifier SUCCESS = new ResponseVerifier(200, "OK", MessageRule.ABSENT);
+    public static final ResponseVerifier VALIDATION_ERROR = new ResponseVerifier(400, "ERROR", MessageRule.PRESENT);
+    public static final ResponseVerifier AUTH_ERROR = new ResponseVerifier(401, "ERROR", MessageRule.PRESENT);
+    public static final ResponseVerifier FORBIDDEN_ERROR = new ResponseVerifier(403, "ERROR", MessageRule.PRESENT);
+    public static final ResponseVerifier EXTERNAL_SERVICE_ERROR = new ResponseVerifier(500, "ERROR", MessageRule.PRESENT);
+
+    private static final String EMPTY_BODY = "The JSON input text should neither be null nor empty.";
+
+    private final int expectedStatus;
+    private final String expectedResult;
+    private final MessageRule messageRule;
+
+    private ResponseVerifier(int expectedStatus, String expectedResult, MessageRule messageRule) {
+        this.expectedStatus = expectedStatus;
+        this.expectedResult = expectedResult;
+        this.messageRule = messageRule;
+    }
+
+    /**
+     * @return проверка для ожидаемого статуса или null, если статус не описан
+     */
+    public static ResponseVerifier forStatus(int statusCode) {
+        return switch (statusCode) {
+            case 200 -> SUCCESS;
+            case 400 -> VALIDATION_ERROR;
+            case 401 -> AUTH_ERROR;
+            case 403 -> FORBIDDEN_ERROR;
+            case 500 -> EXTERNAL_SERVICE_ERROR;
+            default -> null;
+        };
+    }
+
+    public int getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    public void verify(Response response) {
+        verify(response.statusCode(), response.asString());
+    }
+
+    public void verify(ClientResponse response) {
+        verify(response.getStatusCode(), response.getBody());
+    }
+
+    public void verify(int statusCode, String body) {
+        String failure = check(statusCode, body);
+        if (failure != null) {
+            throw new AssertionError(failure);
+        }
+    }
+
+    public boolean matches(int statusCode, String body) {
+        return check(statusCode, body) == null;
+    }
+
+    /**
+     * @return текст ошибки или null, если ответ соответствует ожиданиям
+     */
+    public String check(int statusCode, String body) {
+        if (statusCode != expectedStatus) {
+            return String.format("1 expectation failed.\nExpected status code <%d> but was <%d>.\n",
+                    expectedStatus, statusCode);
+        }
+        if (body == null || body.isBlank()) {
+            return EMPTY_BODY;
+        }
+
+        Scanner scanner = new Scanner(body);
+        if (!scanner.scan()) {
+            return String.format("Could not parse JSON body at position %d: %s", scanner.pos, body);
+        }
+        if (!scanner.result.equalsString(body, expectedResult)) {
+            return mismatch("result", expectedResult, scanner.result.describe(body));
+        }
+        if (!messageRule.test(scanner.message)) {
+            return mismatch("message", messageRule.description, scanner.message.describe(body));
+        }
+        return null;
+    }
+
+    private static String mismatch(String path, String expected, String actual) {
+        return String.format("1 expectation failed.\nJSON path %s doesn't match.\nExpected: %s\n  Actual: %s\n",
+                path, expected, actual);
+    }
+
+    private enum MessageRule {
+        ABSENT("null"),
+        PRESENT("not (null or an empty string)");
+
+        private final String description;
+
+        MessageRule(String description) {
+            this.description = description;
+        }
+
+        private boolean test(Value message) {
+            return switch (message.kind) {
+                case MISSING, NULL -> this == ABSENT;
+                case STRING -> this == PRESENT && message.end > message.start;
+                case OTHER -> this == PRESENT;
+            };
+        }
+    }
+
+    private enum Kind {
+        MISSING, NULL, STRING, OTHER
+    }
+
+    /**
+     * Положение значения в теле; строки декодируются только для сообщения об ошибке или при наличии escape-последовательностей.
+     */
+    private static final class Value {
+        private Kind kind = Kind.MISSING;
+        private int start;
+        private int end;
+        private boolean escaped;
+
+        private void set(Kind kind, int start, int end, boolean escaped) {
+            this.kind = kind;
+            this.start = start;
+            this.end = end;
+            this.escaped = escaped;
+        }
+
+        private boolean equalsString(String json, String expected) {
+            if (kind != Kind.STRING) {
+                return false;
+            }
+            if (escaped) {
+                return expected.equals(decode(json, start, end));
+            }
+            return end - start == expected.length() && json.regionMatches(start, expected, 0, expected.length());
+        }
+
+        private String describe(String json) {
+            return switch (kind) {
+                case MISSING, NULL -> "null";
+                case STRING -> escaped ? decode(json, start, end) : json.substring(start, end);
+                case OTHER -> "<" + json.substring(start, end) + ">";
+            };
+        }
+    }
+
+    /**
+     * Однопроходный разбор верхнего уровня JSON-объекта: запоминаются только поля result и message,
+     * остальные значения пропускаются. При повторе ключа действует последнее значение, как в JsonPath.
+     */
+    private static final class Scanner {
+        private final String json;
+        private final Value result = new Value();
+        private final Value message = new Value();
+        private int pos;
+        private boolean lastStringEscaped;
+
+        private Scanner(String json) {
+            this.json = json;
+        }
+
+        private boolean scan() {
+            skipWhitespace();
+            if (pos >= json.length() || json.charAt(pos) != '{') {
+                return skipValue() >= 0;
+            }
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                return true;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    return false;
+                }
+                int keyStart = ++pos;
+                int keyEnd = scanString();
+                if (keyEnd < 0) {
+                    return false;
+                }
+                boolean keyEscaped = lastStringEscaped;
+                skipWhitespace();
+                if (peek() != ':') {
+                    return false;
+                }
+                pos++;
+                skipWhitespace();
+                Value target = keyEscaped ? null : field(keyStart, keyEnd);
+                if (!scanValue(target)) {
+                    return false;
+                }
+                skipWhitespace();
+                char next = peek();
+                pos++;
+                if (next == '}') {
+                    return true;
+                }
+                if (next != ',') {
+                    return false;
+                }
+            }
+        }
+
+        private Value field(int keyStart, int keyEnd) {
+            int length = keyEnd - keyStart;
+            if (length == 6 && json.regionMatches(keyStart, "result", 0, 6)) {
+                return result;
+            }
+            if (length == 7 && json.regionMatches(keyStart, "message", 0, 7)) {
+                return message;
+            }
+            return null;
+        }
+
+        private boolean scanValue(Value target) {
+            char first = peek();
+            if (first == '"') {
+                int start = ++pos;
+                int end = scanString();
+                if (end < 0) {
+                    return false;
+                }
+                if (target != null) {
+                    target.set(Kind.STRING, start, end, lastStringEscaped);
+                }
+                return true;
+            }
+            int start = pos;
+            int end = skipValue();
+            if (end < 0) {
+                return false;
+            }
+            if (target != null) {
+                boolean isNull = end - start == 4 && json.regionMatches(start, "null", 0, 4);
+                target.set(isNull ? Kind.NULL : Kind.OTHER, start, end, false);
+            }
+            return true;
+        }
+
+        /**
+         * Пропускает строку, начиная после открывающей кавычки.
+         *
+         * @return позиция закрывающей кавычки или -1
+         */
+        private int scanString() {
+            lastStringEscaped = false;
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == '"') {
+                    return pos++;
+                }
+                if (c == '\\') {
+                    lastStringEscaped = true;
+                    pos++;
+                }
+                pos++;
+            }
+            return -1;
+        }
+
+        /**
+         * Пропускает литерал, число, объект или массив.
+         *
+         * @return позиция после значения или -1
+         */
+        private int skipValue() {
+            char first = peek();
+            if (first == '{' || first == '[') {
+                int depth = 0;
+                while (pos < json.length()) {
+                    char c = json.charAt(pos++);
+                    if (c == '"') {
+                        if (scanString() < 0) {
+                            return -1;
+                        }
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if ((c == '}' || c == ']') && --depth == 0) {
+                        return pos;
+                    }
+                }
+                return -1;
+            }
+            if (first == '"') {
+                pos++;
+                return scanString() < 0 ? -1 : pos;
+            }
+            int start = pos;
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                    break;
+                }
+                pos++;
+            }
+            return pos > start ? pos : -1;
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < json.length() ? json.charAt(pos) : '\0';
+        }
+    }
+
+    private static String decode(String json, int start, int end) {
+        StringBuilder decoded = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = json.charAt(i);
+            if (c != '\\' || i + 1 >= end) {
+                decoded.append(c);
+                continue;
+            }
+            char escape = json.charAt(++i);
+            switch (escape) {
+                case 'b' -> decoded.append('\b');
+                case 'f' -> decoded.append('\f');
+                case 'n' -> decoded.append('\n');
+                case 'r' -> decoded.append('\r');
+                case 't' -> decoded.append('\t');
+                case 'u' -> {
+                    try {
+                        decoded.append((char) Integer.parseInt(json, i + 1, i + 5, 16));
+                        i += 4;
+                    } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                        decoded.append('\\').append(escape);
+                    }
+                }
+                default -> decoded.append(escape);
+            }
+        }
+        return decoded.toString();
+    }
+}
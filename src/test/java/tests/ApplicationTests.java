@@ -1,16 +1,22 @@
 package tests;
 
 import builders.RequestDataBuilder;
+import clients.ApplicationClient;
+import config.TestConfig;
 import helpers.TokenHelper;
 import io.qameta.allure.*;
+import mock.MockEndpoint;
 import mock.MockService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import steps.LatencyAssertion;
 
 import java.util.concurrent.TimeUnit;
 
-import static org.hamcrest.Matchers.lessThan;
 import static steps.ApplicationSteps.*;
 
 @Epic("Тестирование Spring Boot приложения")
@@ -46,7 +52,7 @@ public class ApplicationTests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     void externalAuthServiceError() {
         String token = TokenHelper.generateValidToken();
-        MockService.stubAuthEndpoint(500);
+        MockService.stubAuthEndpoint(token, 500);
         var response = executeLogin(token);
         verifyExternalServiceError(response);
     }
@@ -58,11 +64,26 @@ public class ApplicationTests extends BaseTest {
     void externalActionServiceError() {
         String token = TokenHelper.generateValidToken();
         executeLogin(token);
-        MockService.stubDoActionEndpoint(500);
+        MockService.stubDoActionEndpoint(token, 500);
         var response = executeAction(token);
         verifyExternalServiceError(response);
     }
 
+    @Test
+    @DisplayName("Каждое действие вызывает внешний сервис не более одного раза")
+    @Story("Обработка ошибок внешних зависимостей")
+    @Severity(SeverityLevel.NORMAL)
+    void externalServiceCallsAreNotAmplified() {
+        String token = TokenHelper.generateValidToken();
+        executeFullFlow(token);
+        verifyMockCalls(token, MockEndpoint.AUTH, 1);
+        verifyMockCalls(token, MockEndpoint.DO_ACTION, 1);
+        verifyCallsPerRequestAtMost("LOGIN", MockEndpoint.AUTH, 1);
+        verifyCallsPerRequestAtMost("ACTION", MockEndpoint.DO_ACTION, 1);
+        verifyCallsPerRequestAtMost("LOGOUT", MockEndpoint.AUTH, 0);
+        verifyCallsPerRequestAtMost("LOGOUT", MockEndpoint.DO_ACTION, 0);
+    }
+
     @Test
     @Tag("smoke")
     @DisplayName("Проверка всех обязательных сценариев из ТЗ")
@@ -98,11 +119,23 @@ public class ApplicationTests extends BaseTest {
     }
 
     @Test
-    @DisplayName("Время ответа менее 2 секунд")
+    @ResourceLock(value = Resources.GLOBAL, mode = ResourceAccessMode.READ_WRITE)
+    @DisplayName("Перцентили времени ответа LOGIN в пределах SLO")
     @Story("Требования к производительности")
     @Severity(SeverityLevel.NORMAL)
     void responseTimeShouldBeReasonable() {
-        var response = executeLogin(TokenHelper.generateValidToken());
-        response.then().time(lessThan(2000L), TimeUnit.MILLISECONDS);
+        var client = new ApplicationClient();
+        LatencyAssertion.measure("LOGIN", () -> {
+                            String token = TokenHelper.generateValidToken();
+                            client.sendRequest(token, "LOGIN").then().statusCode(200);
+                            return token;
+                        },
+                        token -> client.sendRequest(token, "LOGOUT").then().statusCode(200))
+                .warmUp(TestConfig.getIntProperty("slo.warmup.iterations", 20))
+                .iterations(TestConfig.getIntProperty("slo.iterations", 500))
+                .concurrency(TestConfig.getIntProperty("slo.concurrency", 4))
+                .percentileBelow(95, TestConfig.getLongProperty("slo.login.p95.millis", 250), TimeUnit.MILLISECONDS)
+                .percentileBelow(99, TestConfig.getLongProperty("slo.login.p99.millis", 500), TimeUnit.MILLISECONDS)
+                .verify();
     }
 }
\ No newline at end of file
@@ -1,19 +1,26 @@
 package tests;
 
+import bootstrap.SuiteBootstrap;
 import mock.MockService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.BeforeEach;
+import steps.RequestReporter;
 
 public class BaseTest {
 
     @BeforeAll
     static void setUpAll() {
-        MockService.start();
+        SuiteBootstrap.awaitReady();
     }
 
-    @BeforeEach
-    void setUp() {
-        MockService.stubAuthEndpoint(200);
-        MockService.stubDoActionEndpoint(200);
+    @AfterAll
+    static void tearDownAll() {
+        RequestReporter.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockService.resetTokenStubs();
     }
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package tests;
 
 import builders.RequestDataBuilder;
+import config.TestConfig;
+import fuzz.TokenCase;
+import fuzz.TokenCorpus;
 import helpers.TokenHelper;
 import io.qameta.allure.*;
 import mock.MockService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.*;
 
@@ -21,10 +26,12 @@ public class ParameterizedTests extends BaseTest {
     private final Random random = new Random();
 
     @Nested
+    @Execution(ExecutionMode.SAME_THREAD)
     @DisplayName("Валидация действий (action)")
     class ActionValidationTests {
 
         @ParameterizedTest
+        @Execution(ExecutionMode.CONCURRENT)
         @ValueSource(strings = {"LOGIN", "ACTION", "LOGOUT"})
         @DisplayName("Валидные действия с неправильным контекстом")
         @Story("Проверка корректных действий в неправильном состоянии")
@@ -45,6 +52,7 @@ public class ParameterizedTests extends BaseTest {
         }
 
         @ParameterizedTest
+        @Execution(ExecutionMode.CONCURRENT)
         @NullAndEmptySource
         @ValueSource(strings = {" ", "   ", "INVALID_ACTION", "UNKNOWN", "TEST", "LOGIN_ACTION"})
         @DisplayName("Невалидные действия возвращают ошибку")
@@ -62,10 +70,12 @@ public class ParameterizedTests extends BaseTest {
     }
 
     @Nested
+    @Execution(ExecutionMode.SAME_THREAD)
     @DisplayName("Валидация токенов")
     class TokenValidationTests {
 
         @ParameterizedTest
+        @Execution(ExecutionMode.CONCURRENT)
         @MethodSource("provideInvalidTokens")
         @DisplayName("Разные типы невалидных токенов")
         @Story("Валидация некорректных токенов")
@@ -81,6 +91,7 @@ public class ParameterizedTests extends BaseTest {
         }
 
         @ParameterizedTest
+        @Execution(ExecutionMode.CONCURRENT)
         @MethodSource("provideTokenLengths")
         @DisplayName("Валидация длины токена")
         @Story("Проверка граничных значений длины токена")
@@ -97,6 +108,22 @@ public class ParameterizedTests extends BaseTest {
             }
         }
 
+        @ParameterizedTest
+        @Execution(ExecutionMode.CONCURRENT)
+        @MethodSource("provideCorpusTokens")
+        @DisplayName("Сгенерированные токены из корпуса фаззинга")
+        @Story("Валидация токенов из воспроизводимого корпуса")
+        @Severity(SeverityLevel.NORMAL)
+        void corpusTokenValidation(TokenCase tokenCase) {
+            var response = executeLogin(tokenCase.token());
+
+            if (tokenCase.expectedValid()) {
+                verifySuccessResponse(response);
+            } else {
+                verifyValidationError(response);
+            }
+        }
+
         private static Stream<Arguments> provideInvalidTokens() {
             return Stream.of(
                     Arguments.of((Object) null),
@@ -119,6 +146,11 @@ public class ParameterizedTests extends BaseTest {
             );
         }
 
+        private static Stream<TokenCase> provideCorpusTokens() {
+            long seed = TestConfig.getLongProperty("fuzz.test.seed", 20240101L);
+            return new TokenCorpus(seed).stream(TestConfig.getIntProperty("fuzz.test.cases", 24));
+        }
+
         private String generateTokenOfLength(int length) {
             String validChars = config.TestConfig.getTokenValidChars();
             StringBuilder token = new StringBuilder();
@@ -131,18 +163,21 @@ public class ParameterizedTests extends BaseTest {
     }
 
     @Nested
+    @Execution(ExecutionMode.SAME_THREAD)
     @DisplayName("Интеграционные сценарии")
     class IntegrationTests {
 
         @ParameterizedTest
+        @Execution(ExecutionMode.CONCURRENT)
         @ValueSource(ints = {400, 401, 403, 404, 500})
         @DisplayName("Ошибки внешнего сервиса при AUTH")
         @Story("Обработка различных ошибок внешних сервисов")
         @Severity(SeverityLevel.NORMAL)
         void externalAuthServiceErrors(int mockStatusCode) {
-            MockService.stubAuthEndpoint(mockStatusCode);
+            String token = TokenHelper.generateValidToken();
+            MockService.stubAuthEndpoint(token, mockStatusCode);
 
-            var response = executeLogin(TokenHelper.generateValidToken());
+            var response = executeLogin(token);
             verifyExternalServiceError(response);
         }
     }